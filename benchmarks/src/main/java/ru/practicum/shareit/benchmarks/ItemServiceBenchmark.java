@@ -0,0 +1,48 @@
+package ru.practicum.shareit.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import ru.practicum.shareit.etag.Tagged;
+import ru.practicum.shareit.item.dto.ItemDto;
+
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class ItemServiceBenchmark {
+
+    /**
+     * Matches every seeded item, so the fetch and mapping of the whole catalog are measured.
+     */
+    @Benchmark
+    public List<ItemDto> searchItemBroad(ShareItState app) {
+        return app.itemService.searchItem("battery pack");
+    }
+
+    /**
+     * Matches a single seeded item, the usual shape of a user query.
+     */
+    @Benchmark
+    public List<ItemDto> searchItemSelective(ShareItState app) {
+        return app.itemService.searchItem("pack number 123");
+    }
+
+    @Benchmark
+    public Tagged<ItemDto> getItem(ShareItState app) {
+        Long itemId = app.itemIds.get(ThreadLocalRandom.current().nextInt(app.itemIds.size()));
+        return app.itemService.getItem(itemId, null);
+    }
+}
@@ -0,0 +1,94 @@
+package ru.practicum.shareit.benchmarks;
+
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import ru.practicum.shareit.ShareItApp;
+import ru.practicum.shareit.booking.BookingService;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.item.ItemService;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.user.UserService;
+import ru.practicum.shareit.user.dto.UserDto;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Boots the application against embedded H2 once per trial and seeds an owner with a catalog
+ * and a booking history spread over past, current and future.
+ */
+@State(Scope.Benchmark)
+public class ShareItState {
+
+    static final int ITEMS = 500;
+    static final int HISTORY_PER_ITEM = 6;
+
+    ConfigurableApplicationContext context;
+    BookingService bookingService;
+    ItemService itemService;
+    Long ownerId;
+    Long bookerId;
+    List<Long> itemIds;
+    LocalDateTime slotsBase;
+    final AtomicLong slotCounter = new AtomicLong();
+
+    @Setup(Level.Trial)
+    public void start() {
+        context = new SpringApplicationBuilder(ShareItApp.class).profiles("bench").run();
+        bookingService = context.getBean(BookingService.class);
+        itemService = context.getBean(ItemService.class);
+        UserService userService = context.getBean(UserService.class);
+
+        ownerId = userService.createUser(UserDto.builder().name("owner").email("owner@bench.local").build()).getId();
+        bookerId = userService.createUser(UserDto.builder().name("booker").email("booker@bench.local").build())
+                .getId();
+
+        itemIds = new ArrayList<>(ITEMS);
+        for (int i = 0; i < ITEMS; i++) {
+            ItemDto item = ItemDto.builder()
+                    .name("Drill " + i)
+                    .description("Cordless drill with battery pack number " + i)
+                    .available(true)
+                    .build();
+            itemIds.add(itemService.createItem(item, ownerId).getId());
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        for (Long itemId : itemIds) {
+            for (int k = 0; k < HISTORY_PER_ITEM; k++) {
+                LocalDateTime start = now.plusDays((k - HISTORY_PER_ITEM / 2) * 2L).minusHours(12);
+                BookingDto booking = bookingService.addBooking(BookingDto.builder()
+                        .itemId(itemId)
+                        .start(start)
+                        .end(start.plusDays(1))
+                        .build(), bookerId);
+                if (k % 3 != 2) {
+                    bookingService.approveBooking(ownerId, booking.getId(), k % 3 == 0);
+                }
+            }
+        }
+        slotsBase = now.plusYears(1);
+    }
+
+    @TearDown(Level.Trial)
+    public void stop() {
+        context.close();
+    }
+
+    BookingDto nextFreeSlot() {
+        long slot = slotCounter.getAndIncrement();
+        LocalDateTime start = slotsBase.plusHours(slot / ITEMS);
+        return BookingDto.builder()
+                .itemId(itemIds.get((int) (slot % ITEMS)))
+                .start(start)
+                .end(start.plusMinutes(30))
+                .build();
+    }
+}
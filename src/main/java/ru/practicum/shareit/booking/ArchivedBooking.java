@@ -0,0 +1,60 @@
+package ru.practicum.shareit.booking;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.ConstraintMode;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.FetchType;
+import jakarta.persistence.ForeignKey;
+import jakarta.persistence.Id;
+import jakarta.persistence.JoinColumn;
+import jakarta.persistence.ManyToOne;
+import jakarta.persistence.Table;
+import lombok.AccessLevel;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.NoArgsConstructor;
+import lombok.ToString;
+import lombok.experimental.FieldDefaults;
+import org.hibernate.annotations.Immutable;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.user.User;
+
+import java.time.LocalDateTime;
+
+/**
+ * Read-only view of a booking moved to cold storage by {@link BookingArchiver}. Rows are written
+ * with plain SQL, so the entity only serves lookups.
+ */
+@Entity
+@Immutable
+@Table(name = "bookings_archive")
+@Data
+@FieldDefaults(level = AccessLevel.PRIVATE)
+@NoArgsConstructor
+public class ArchivedBooking {
+    @Id
+    Long id;
+    @Column(name = "start_date", nullable = false)
+    LocalDateTime start;
+    @Column(name = "end_date", nullable = false)
+    LocalDateTime end;
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "item_id", nullable = false, foreignKey = @ForeignKey(ConstraintMode.NO_CONSTRAINT))
+    Item item;
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "booker_id", nullable = false, foreignKey = @ForeignKey(ConstraintMode.NO_CONSTRAINT))
+    User booker;
+    @Column(name = "owner_id")
+    Long ownerId;
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    BookingStatus status;
+    @Column(name = "archived_at", nullable = false)
+    LocalDateTime archivedAt;
+}
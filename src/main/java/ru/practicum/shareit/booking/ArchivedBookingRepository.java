@@ -0,0 +1,36 @@
+package ru.practicum.shareit.booking;
+
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.AvailableHints;
+import org.springframework.data.jpa.repository.EntityGraph;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import ru.practicum.shareit.booking.dto.BookingView;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+/**
+ * Listings over the archive go through {@link BookingQueryEngine}; this covers the single-booking lookups
+ * and the owner export.
+ */
+public interface ArchivedBookingRepository extends JpaRepository<ArchivedBooking, Long> {
+
+    boolean existsByItemIdAndBookerIdAndEndIsBefore(Long itemId, Long bookerId, LocalDateTime end);
+
+    @EntityGraph(attributePaths = {"item", "booker"})
+    Optional<ArchivedBooking> findWithItemAndBookerById(Long bookingId);
+
+    /**
+     * Outer joins: the archive keeps no foreign keys, so a row may outlive its item or booker.
+     */
+    @QueryHints(@QueryHint(name = AvailableHints.HINT_FETCH_SIZE, value = "500"))
+    @Query("select new ru.practicum.shareit.booking.dto.BookingView(" +
+            "b.id, b.start, b.end, b.status, b.item.id, i.name, b.booker.id, u.name) " +
+            "from ArchivedBooking b left join b.item i left join b.booker u " +
+            "where b.ownerId = :ownerId order by b.id")
+    Stream<BookingView> streamOwnerBookings(@Param("ownerId") Long ownerId);
+}
@@ -0,0 +1,122 @@
+package ru.practicum.shareit.booking;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * Moves approved and cancelled bookings that ended more than the retention period ago into
+ * {@code bookings_archive}, one batch per transaction. Waiting and rejected bookings stay hot, so only
+ * the PAST and ALL listings ever need the archive. The latest finished booking of every item is kept
+ * hot as well, which leaves the lastBooking aggregates reading the hot table alone.
+ */
+@Component
+@Slf4j
+public class BookingArchiver {
+
+    private static final String SELECT_BATCH = "SELECT b.id, b.start_date FROM bookings b " +
+            "WHERE b.status IN ('APPROVED', 'CANCELLED') AND b.end_date < :cutoff " +
+            "AND b.end_date < (SELECT MAX(l.end_date) FROM bookings l " +
+            "WHERE l.item_id = b.item_id AND l.end_date < :now) " +
+            "ORDER BY b.id LIMIT :limit";
+
+    private static final String COPY_BATCH = "INSERT INTO bookings_archive " +
+            "(id, start_date, end_date, item_id, booker_id, owner_id, status, archived_at) " +
+            "SELECT id, start_date, end_date, item_id, booker_id, owner_id, status, :archivedAt " +
+            "FROM bookings WHERE id IN (:ids)";
+
+    private static final String DELETE_BATCH = "DELETE FROM bookings WHERE id IN (:ids)";
+
+    private static final DateTimeFormatter PARTITION_SUFFIX = DateTimeFormatter.ofPattern("yyyyMM");
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final boolean enabled;
+    private final int retentionDays;
+    private final int batchSize;
+    private Boolean partitioned;
+
+    public BookingArchiver(NamedParameterJdbcTemplate jdbcTemplate,
+                           TransactionTemplate transactionTemplate,
+                           @Value("${shareit.booking.archive.enabled:true}") boolean enabled,
+                           @Value("${shareit.booking.archive.retention-days:180}") int retentionDays,
+                           @Value("${shareit.booking.archive.batch-size:1000}") int batchSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.enabled = enabled;
+        this.retentionDays = retentionDays;
+        this.batchSize = batchSize;
+    }
+
+    @Scheduled(cron = "${shareit.booking.archive.cron:0 30 3 * * *}")
+    public synchronized void archive() {
+        if (!enabled) {
+            return;
+        }
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime cutoff = now.minusDays(retentionDays);
+        long moved = 0;
+        int batch;
+        do {
+            batch = transactionTemplate.execute(status -> moveBatch(cutoff, now));
+            moved += batch;
+        } while (batch == batchSize);
+        if (moved > 0) {
+            log.info("Archived {} bookings that ended before {}", moved, cutoff);
+        }
+    }
+
+    private int moveBatch(LocalDateTime cutoff, LocalDateTime now) {
+        MapSqlParameterSource select = new MapSqlParameterSource()
+                .addValue("cutoff", Timestamp.valueOf(cutoff))
+                .addValue("now", Timestamp.valueOf(now))
+                .addValue("limit", batchSize);
+        List<Long> ids = new ArrayList<>();
+        Set<LocalDate> months = new TreeSet<>();
+        jdbcTemplate.query(SELECT_BATCH, select, rs -> {
+            ids.add(rs.getLong(1));
+            months.add(rs.getTimestamp(2).toLocalDateTime().toLocalDate().withDayOfMonth(1));
+        });
+        if (ids.isEmpty()) {
+            return 0;
+        }
+        if (isPartitioned()) {
+            months.forEach(this::ensurePartition);
+        }
+        MapSqlParameterSource batch = new MapSqlParameterSource()
+                .addValue("ids", ids)
+                .addValue("archivedAt", Timestamp.valueOf(now));
+        jdbcTemplate.update(COPY_BATCH, batch);
+        jdbcTemplate.update(DELETE_BATCH, batch);
+        return ids.size();
+    }
+
+    private void ensurePartition(LocalDate month) {
+        String name = "bookings_archive_p" + month.format(PARTITION_SUFFIX);
+        jdbcTemplate.getJdbcTemplate().execute("CREATE TABLE IF NOT EXISTS " + name +
+                " PARTITION OF bookings_archive FOR VALUES FROM ('" + month.atStartOfDay() +
+                "') TO ('" + month.plusMonths(1).atStartOfDay() + "')");
+    }
+
+    private boolean isPartitioned() {
+        if (partitioned == null) {
+            partitioned = jdbcTemplate.getJdbcTemplate().execute((ConnectionCallback<Boolean>) connection ->
+                    "PostgreSQL".equals(connection.getMetaData().getDatabaseProductName()));
+        }
+        return partitioned;
+    }
+}
@@ -1,24 +1,39 @@
 package ru.practicum.shareit.booking;
 
 import jakarta.validation.Valid;
+import jakarta.validation.constraints.Positive;
+import jakarta.validation.constraints.PositiveOrZero;
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Sort;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import ru.practicum.shareit.booking.dto.BookingCountsDto;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.exceptions.NotOwnerException;
+import ru.practicum.shareit.idempotency.IdempotencyService;
 
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Set;
 
 @RestController
 @RequestMapping(path = "/bookings")
 @RequiredArgsConstructor
 public class BookingController {
 
+    public static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+
     private final BookingService bookingService;
+    private final IdempotencyService idempotencyService;
 
     @PostMapping
     public BookingDto createBooking(@RequestBody @Valid BookingDto bookingDto,
-                                    @RequestHeader("X-Sharer-User-Id") Long userId) {
-        return bookingService.addBooking(bookingDto, userId);
+                                    @RequestHeader("X-Sharer-User-Id") Long userId,
+                                    @RequestHeader(value = IdempotencyService.HEADER, required = false)
+                                    String idempotencyKey) {
+        return idempotencyService.execute("bookings", userId, idempotencyKey, bookingDto, BookingDto.class,
+                () -> bookingService.addBooking(bookingDto, userId));
     }
 
     @PatchMapping("/{bookingId}")
@@ -28,6 +43,11 @@ public class BookingController {
         return bookingService.approveBooking(userId, bookingId, approved);
     }
 
+    @GetMapping("/counts")
+    public BookingCountsDto getBookingCounts(@RequestHeader("X-Sharer-User-Id") Long userId) {
+        return bookingService.getBookingCounts(userId);
+    }
+
     @GetMapping("/{bookingId}")
     public BookingDto getBooking(@PathVariable Long bookingId,
                                  @RequestHeader("X-Sharer-User-Id") Long userId) throws NotOwnerException {
@@ -35,14 +55,77 @@ public class BookingController {
     }
 
     @GetMapping("/owner")
-    public List<BookingDto> getBookingsByOwner(@RequestHeader("X-Sharer-User-Id") Long ownerId,
-                                               @RequestParam(name = "state", defaultValue = "ALL") String state) {
-        return bookingService.getAllBookingsByOwner(ownerId, state);
+    public ResponseEntity<List<BookingDto>> getBookingsByOwner(@RequestHeader("X-Sharer-User-Id") Long ownerId,
+                                                               @RequestParam(name = "state", defaultValue = "ALL")
+                                                               String state,
+                                                               @RequestParam(required = false) Long itemId,
+                                                               @RequestParam(name = "status", required = false)
+                                                               Set<BookingStatus> statuses,
+                                                               @RequestParam(required = false)
+                                                               @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+                                                               LocalDateTime rangeStart,
+                                                               @RequestParam(required = false)
+                                                               @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+                                                               LocalDateTime rangeEnd,
+                                                               @RequestParam(defaultValue = "DESC")
+                                                               Sort.Direction direction,
+                                                               @RequestParam(defaultValue = "0") @PositiveOrZero
+                                                               int from,
+                                                               @RequestParam(required = false) @Positive Integer size,
+                                                               @RequestParam(required = false) String cursor) {
+        BookingFilter filter = BookingFilter.builder()
+                .ownerId(ownerId)
+                .state(BookingState.from(state))
+                .itemId(itemId)
+                .statuses(statuses)
+                .rangeStart(rangeStart)
+                .rangeEnd(rangeEnd)
+                .direction(direction)
+                .build();
+        return withNextCursor(bookingService.getBookings(filter, from, size, cursor), size);
     }
 
     @GetMapping
-    public List<BookingDto> getBookingByBooker(@RequestHeader("X-Sharer-User-Id") Long ownerId,
-                                               @RequestParam(name = "state", defaultValue = "ALL") String state) {
-        return bookingService.getAllBookingsByBooker(ownerId, state);
+    public ResponseEntity<List<BookingDto>> getBookingByBooker(@RequestHeader("X-Sharer-User-Id") Long bookerId,
+                                                               @RequestParam(name = "state", defaultValue = "ALL")
+                                                               String state,
+                                                               @RequestParam(required = false) Long itemId,
+                                                               @RequestParam(name = "status", required = false)
+                                                               Set<BookingStatus> statuses,
+                                                               @RequestParam(required = false)
+                                                               @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+                                                               LocalDateTime rangeStart,
+                                                               @RequestParam(required = false)
+                                                               @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+                                                               LocalDateTime rangeEnd,
+                                                               @RequestParam(defaultValue = "DESC")
+                                                               Sort.Direction direction,
+                                                               @RequestParam(defaultValue = "0") @PositiveOrZero
+                                                               int from,
+                                                               @RequestParam(required = false) @Positive Integer size,
+                                                               @RequestParam(required = false) String cursor) {
+        BookingFilter filter = BookingFilter.builder()
+                .bookerId(bookerId)
+                .state(BookingState.from(state))
+                .itemId(itemId)
+                .statuses(statuses)
+                .rangeStart(rangeStart)
+                .rangeEnd(rangeEnd)
+                .direction(direction)
+                .build();
+        return withNextCursor(bookingService.getBookings(filter, from, size, cursor), size);
+    }
+
+    /**
+     * Without {@code size} the whole list is returned, as before paging existed, and there is no next page.
+     */
+    private ResponseEntity<List<BookingDto>> withNextCursor(List<BookingDto> bookings, Integer size) {
+        if (size == null || bookings.size() < size) {
+            return ResponseEntity.ok(bookings);
+        }
+        BookingDto last = bookings.get(bookings.size() - 1);
+        return ResponseEntity.ok()
+                .header(NEXT_CURSOR_HEADER, new BookingCursor(last.getStart(), last.getId()).encode())
+                .body(bookings);
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,37 @@
+package ru.practicum.shareit.booking;
+
+import lombok.Builder;
+import lombok.Value;
+import org.springframework.data.domain.Sort;
+
+import java.time.LocalDateTime;
+import java.util.Set;
+
+/**
+ * Conditions for a booking listing. Unset fields do not restrict the result; set fields are combined with AND.
+ */
+@Value
+@Builder
+public class BookingFilter {
+    Long bookerId;
+    Long ownerId;
+    @Builder.Default
+    BookingState state = BookingState.ALL;
+    Long itemId;
+    Set<BookingStatus> statuses;
+    LocalDateTime rangeStart;
+    LocalDateTime rangeEnd;
+    @Builder.Default
+    Sort.Direction direction = Sort.Direction.DESC;
+
+    /**
+     * Only finished approved or cancelled bookings are archived, so only PAST and ALL listings that
+     * admit one of those statuses can find anything there.
+     */
+    public boolean mayReadArchive() {
+        boolean pastIncluded = state == BookingState.ALL || state == BookingState.PAST;
+        boolean statusIncluded = statuses == null || statuses.isEmpty()
+                || statuses.contains(BookingStatus.APPROVED) || statuses.contains(BookingStatus.CANCELLED);
+        return pastIncluded && statusIncluded;
+    }
+}
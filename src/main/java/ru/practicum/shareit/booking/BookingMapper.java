@@ -1,6 +1,9 @@
 package ru.practicum.shareit.booking;
 
 import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.dto.BookingView;
+import ru.practicum.shareit.booking.dto.ItemShortDto;
+import ru.practicum.shareit.booking.dto.UserShortDto;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.user.User;
 
@@ -12,12 +15,38 @@ public class BookingMapper {
                 .start(booking.getStart())
                 .end(booking.getEnd())
                 .itemId(booking.getItem().getId())
-                .item(booking.getItem())
-                .booker(booking.getBooker())
+                .item(new ItemShortDto(booking.getItem().getId(), booking.getItem().getName()))
+                .booker(new UserShortDto(booking.getBooker().getId(), booking.getBooker().getName()))
                 .status(booking.getStatus())
                 .build();
     }
 
+    public static BookingDto toBookingDto(ArchivedBooking booking) {
+        return BookingDto
+                .builder()
+                .id(booking.getId())
+                .start(booking.getStart())
+                .end(booking.getEnd())
+                .itemId(booking.getItem().getId())
+                .item(new ItemShortDto(booking.getItem().getId(), booking.getItem().getName()))
+                .booker(new UserShortDto(booking.getBooker().getId(), booking.getBooker().getName()))
+                .status(booking.getStatus())
+                .build();
+    }
+
+    public static BookingDto toBookingDto(BookingView view) {
+        return BookingDto
+                .builder()
+                .id(view.getId())
+                .start(view.getStart())
+                .end(view.getEnd())
+                .itemId(view.getItemId())
+                .item(new ItemShortDto(view.getItemId(), view.getItemName()))
+                .booker(new UserShortDto(view.getBookerId(), view.getBookerName()))
+                .status(view.getStatus())
+                .build();
+    }
+
     public static Booking toBooking(BookingDto bookingDto, Item item, User user) {
         return Booking.builder()
                 .id(bookingDto.getId())
@@ -25,6 +54,7 @@ public class BookingMapper {
                 .end(bookingDto.getEnd())
                 .item(item)
                 .booker(user)
+                .ownerId(item.getOwner().getId())
                 .build();
     }
 }
\ No newline at end of file
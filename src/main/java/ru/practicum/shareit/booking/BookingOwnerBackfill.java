@@ -0,0 +1,73 @@
+package ru.practicum.shareit.booking;
+
+import lombok.extern.slf4j.Slf4j;
+import org.flywaydb.core.api.MigrationVersion;
+import org.flywaydb.core.api.migration.Context;
+import org.flywaydb.core.api.migration.JavaMigration;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.SingleConnectionDataSource;
+import org.springframework.stereotype.Component;
+
+import java.sql.Connection;
+
+/**
+ * Fills bookings.owner_id for rows written before the column existed. Walks the primary key in
+ * fixed ranges, one short committed UPDATE per range, so no lock is held for more than a batch.
+ * Runs as Flyway migration 6.1 outside a transaction, after V6 added the column and before the
+ * later migrations make it NOT NULL.
+ */
+@Component
+@Slf4j
+public class BookingOwnerBackfill implements JavaMigration {
+
+    private static final String UPDATE_RANGE = "UPDATE bookings SET owner_id = " +
+            "(SELECT i.owner_id FROM items i WHERE i.id = bookings.item_id) " +
+            "WHERE owner_id IS NULL AND id > ? AND id <= ?";
+
+    private final int batchSize;
+
+    public BookingOwnerBackfill(@Value("${shareit.booking.owner-backfill.batch-size:1000}") int batchSize) {
+        this.batchSize = batchSize;
+    }
+
+    @Override
+    public MigrationVersion getVersion() {
+        return MigrationVersion.fromVersion("6.1");
+    }
+
+    @Override
+    public String getDescription() {
+        return "booking owner backfill";
+    }
+
+    @Override
+    public Integer getChecksum() {
+        return null;
+    }
+
+    @Override
+    public boolean canExecuteInTransaction() {
+        return false;
+    }
+
+    @Override
+    public void migrate(Context context) throws Exception {
+        Connection connection = context.getConnection();
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(new SingleConnectionDataSource(connection, true));
+        Long[] range = jdbcTemplate.queryForObject(
+                "SELECT MIN(id), MAX(id) FROM bookings WHERE owner_id IS NULL",
+                (rs, rowNum) -> new Long[]{rs.getObject(1, Long.class), rs.getObject(2, Long.class)});
+        if (range == null || range[0] == null) {
+            return;
+        }
+        long updated = 0;
+        for (long from = range[0] - 1; from < range[1]; from += batchSize) {
+            updated += jdbcTemplate.update(UPDATE_RANGE, from, Math.min(from + batchSize, range[1]));
+            if (!connection.getAutoCommit()) {
+                connection.commit();
+            }
+        }
+        log.info("Backfilled owner_id for {} bookings", updated);
+    }
+}
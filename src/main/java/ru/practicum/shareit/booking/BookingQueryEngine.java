@@ -0,0 +1,153 @@
+package ru.practicum.shareit.booking;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.TypedQuery;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.criteria.AbstractQuery;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Expression;
+import jakarta.persistence.criteria.Join;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Selection;
+import lombok.RequiredArgsConstructor;
+import org.hibernate.Session;
+import org.hibernate.query.criteria.HibernateCriteriaBuilder;
+import org.hibernate.query.criteria.JpaCriteriaQuery;
+import org.hibernate.query.criteria.JpaDerivedRoot;
+import org.hibernate.query.criteria.JpaSubQuery;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.booking.dto.BookingView;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Builds the booking listing statement from a {@link BookingFilter}: one select of the {@link BookingView}
+ * columns with item and booker joined, in (start, id) order and paged by keyset cursor or row offset.
+ * Works for both {@link Booking} and {@link ArchivedBooking}, which share attribute names, and for the
+ * union of the two.
+ */
+@Component
+@RequiredArgsConstructor
+public class BookingQueryEngine {
+
+    /**
+     * View columns in {@link BookingView} constructor order; the first two are the sort key.
+     */
+    private static final List<String> COLUMNS = List.of(
+            "id", "start_date", "end_date", "status", "item_id", "item_name", "booker_id", "booker_name");
+
+    private final EntityManager entityManager;
+
+    public List<BookingView> find(Class<?> source, BookingFilter filter, LocalDateTime now,
+                                  BookingCursor after, Pageable page) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<BookingView> query = cb.createQuery(BookingView.class);
+        List<Expression<?>> columns = select(cb, query, source, filter, now, after);
+        return paged(view(cb, query, columns, filter.getDirection()), page);
+    }
+
+    /**
+     * Lists the hot and the archived table as one UNION ALL statement, so the order, offset and limit are
+     * applied by the database instead of merging both sources in memory.
+     */
+    public List<BookingView> findWithArchive(BookingFilter filter, LocalDateTime now,
+                                             BookingCursor after, Pageable page) {
+        HibernateCriteriaBuilder cb = entityManager.unwrap(Session.class).getCriteriaBuilder();
+        JpaCriteriaQuery<BookingView> query = cb.createQuery(BookingView.class);
+        JpaSubQuery<Tuple> hot = query.subquery(Tuple.class);
+        hot.multiselect(aliased(select(cb, hot, Booking.class, filter, now, after)));
+        JpaSubQuery<Tuple> archived = query.subquery(Tuple.class);
+        archived.multiselect(aliased(select(cb, archived, ArchivedBooking.class, filter, now, after)));
+        JpaDerivedRoot<Tuple> union = query.from(cb.unionAll(hot, archived));
+        List<Expression<?>> columns = COLUMNS.stream().<Expression<?>>map(union::get).toList();
+        return paged(view(cb, query, columns, filter.getDirection()), page);
+    }
+
+    private TypedQuery<BookingView> view(CriteriaBuilder cb, CriteriaQuery<BookingView> query,
+                                         List<Expression<?>> columns, Sort.Direction direction) {
+        Expression<?> id = columns.get(0);
+        Expression<?> start = columns.get(1);
+        query.select(cb.construct(BookingView.class, columns.toArray(Selection[]::new)))
+                .orderBy(direction.isAscending()
+                        ? List.of(cb.asc(start), cb.asc(id))
+                        : List.of(cb.desc(start), cb.desc(id)));
+        return entityManager.createQuery(query);
+    }
+
+    private static List<Selection<?>> aliased(List<Expression<?>> columns) {
+        List<Selection<?>> selections = new ArrayList<>();
+        for (int i = 0; i < columns.size(); i++) {
+            selections.add(columns.get(i).alias(COLUMNS.get(i)));
+        }
+        return selections;
+    }
+
+    /**
+     * Adds the source and the conditions to the query and returns the view columns.
+     */
+    private List<Expression<?>> select(CriteriaBuilder cb, AbstractQuery<?> query, Class<?> source,
+                                       BookingFilter filter, LocalDateTime now, BookingCursor after) {
+        Root<?> booking = query.from(source);
+        Join<?, ?> item = booking.join("item");
+        Join<?, ?> booker = booking.join("booker");
+        Path<LocalDateTime> start = booking.get("start");
+        Path<LocalDateTime> end = booking.get("end");
+        Path<Long> id = booking.get("id");
+        Path<BookingStatus> status = booking.get("status");
+
+        List<Predicate> where = new ArrayList<>();
+        if (filter.getBookerId() != null) {
+            where.add(cb.equal(booker.get("id"), filter.getBookerId()));
+        }
+        if (filter.getOwnerId() != null) {
+            where.add(cb.equal(booking.get("ownerId"), filter.getOwnerId()));
+        }
+        switch (filter.getState()) {
+            case CURRENT -> where.add(cb.and(cb.lessThan(start, now), cb.greaterThan(end, now)));
+            case PAST -> where.add(cb.lessThan(end, now));
+            case FUTURE -> where.add(cb.greaterThan(start, now));
+            case WAITING -> where.add(cb.equal(status, BookingStatus.WAITING));
+            case REJECTED -> where.add(cb.equal(status, BookingStatus.REJECTED));
+            case ALL -> {
+            }
+        }
+        if (filter.getItemId() != null) {
+            where.add(cb.equal(item.get("id"), filter.getItemId()));
+        }
+        if (filter.getStatuses() != null && !filter.getStatuses().isEmpty()) {
+            where.add(status.in(filter.getStatuses()));
+        }
+        if (filter.getRangeStart() != null) {
+            where.add(cb.greaterThan(end, filter.getRangeStart()));
+        }
+        if (filter.getRangeEnd() != null) {
+            where.add(cb.lessThan(start, filter.getRangeEnd()));
+        }
+
+        boolean ascending = filter.getDirection().isAscending();
+        if (after != null) {
+            where.add(ascending
+                    ? cb.or(cb.greaterThan(start, after.getStart()),
+                    cb.and(cb.equal(start, after.getStart()), cb.greaterThan(id, after.getId())))
+                    : cb.or(cb.lessThan(start, after.getStart()),
+                    cb.and(cb.equal(start, after.getStart()), cb.lessThan(id, after.getId()))));
+        }
+
+        query.where(where.toArray(Predicate[]::new));
+        return List.of(id, start, end, status, item.get("id"), item.get("name"), booker.get("id"), booker.get("name"));
+    }
+
+    private static List<BookingView> paged(TypedQuery<BookingView> query, Pageable page) {
+        if (page.isPaged()) {
+            query.setFirstResult((int) page.getOffset()).setMaxResults(page.getPageSize());
+        }
+        return query.getResultList();
+    }
+}
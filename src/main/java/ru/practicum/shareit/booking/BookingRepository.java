@@ -1,40 +1,64 @@
 package ru.practicum.shareit.booking;
 
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.AvailableHints;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import ru.practicum.shareit.booking.dto.BookingView;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 public interface BookingRepository extends JpaRepository<Booking, Long> {
 
     boolean existsByItemIdAndBookerIdAndEndIsBefore(Long itemId, Long bookerId, LocalDateTime end);
 
-    boolean existsByItemIdAndEndAfterAndStartBefore(Long itemId, LocalDateTime start, LocalDateTime end);
-
-    List<Booking> findByBookerIdOrderByStartDesc(Long bookerId);
-
-    List<Booking> findByItemOwnerIdOrderByStartDesc(Long ownerId);
-
-    List<Booking> findByBookerIdAndStartBeforeAndEndAfterOrderByStartDesc(Long bookerId, LocalDateTime start, LocalDateTime end);
-
-    List<Booking> findByBookerIdAndEndBeforeOrderByStartDesc(Long bookerId, LocalDateTime end);
-
-    List<Booking> findByBookerIdAndStartAfterOrderByStartDesc(Long bookerId, LocalDateTime start);
-
-    List<Booking> findByBookerIdAndStatusOrderByStartDesc(Long bookerId, BookingStatus status);
-
-    List<Booking> findByItemOwnerIdAndStartBeforeAndEndAfterOrderByStartDesc(Long ownerId, LocalDateTime start, LocalDateTime end);
-
-    List<Booking> findByItemOwnerIdAndEndBeforeOrderByStartDesc(Long ownerId, LocalDateTime end);
-
-    List<Booking> findByItemOwnerIdAndStartAfterOrderByStartDesc(Long ownerId, LocalDateTime start);
-
-    List<Booking> findByItemOwnerIdAndStatusOrderByStartDesc(Long ownerId, BookingStatus status);
-
-    Optional<Booking> findFirstByItemIdAndEndBeforeOrderByEndDesc(Long itemId, LocalDateTime end);
-
-    Optional<Booking> findFirstByItemIdAndStartAfterOrderByStartAsc(Long itemId, LocalDateTime start);
-
-    Optional<Booking> findByIdAndItemOwnerId(Long bookingId, Long ownerId);
+    @Query("select case when count(b) > 0 then true else false end from Booking b " +
+            "where b.item.id = :itemId and b.status in :statuses and b.start < :end and b.end > :start")
+    boolean existsOverlapping(@Param("itemId") Long itemId,
+                              @Param("statuses") Collection<BookingStatus> statuses,
+                              @Param("start") LocalDateTime start,
+                              @Param("end") LocalDateTime end);
+
+    @Query("select b.id as id, b.item.id as itemId, b.start as startDate, b.end as endDate from Booking b " +
+            "where b.item.id in :itemIds and b.status in :statuses and b.start < :end and b.end > :start")
+    List<BookingInterval> findOverlappingIntervals(@Param("itemIds") Collection<Long> itemIds,
+                                                   @Param("statuses") Collection<BookingStatus> statuses,
+                                                   @Param("start") LocalDateTime start,
+                                                   @Param("end") LocalDateTime end);
+
+    String SELECT_VIEW = "select new ru.practicum.shareit.booking.dto.BookingView(" +
+            "b.id, b.start, b.end, b.status, i.id, i.name, u.id, u.name) " +
+            "from Booking b join b.item i join b.booker u";
+
+    @QueryHints(@QueryHint(name = AvailableHints.HINT_FETCH_SIZE, value = "500"))
+    @Query(SELECT_VIEW + " where b.ownerId = :ownerId order by b.id")
+    Stream<BookingView> streamOwnerBookings(@Param("ownerId") Long ownerId);
+
+    @Query("select b.item.id as itemId, max(b.end) as bookingDate from Booking b " +
+            "where b.item.id in :itemIds and b.end < :now group by b.item.id")
+    List<ItemBookingDate> findLastBookingEnds(@Param("itemIds") Collection<Long> itemIds,
+                                              @Param("now") LocalDateTime now);
+
+    @Query("select b.item.id as itemId, min(b.start) as bookingDate from Booking b " +
+            "where b.item.id in :itemIds and b.start > :now group by b.item.id")
+    List<ItemBookingDate> findNextBookingStarts(@Param("itemIds") Collection<Long> itemIds,
+                                                @Param("now") LocalDateTime now);
+
+    @Query("select b.item.id as itemId, min(b.end) as bookingDate from Booking b " +
+            "where b.item.id in :itemIds and b.end >= :now group by b.item.id")
+    List<ItemBookingDate> findEarliestEndsFrom(@Param("itemIds") Collection<Long> itemIds,
+                                               @Param("now") LocalDateTime now);
+
+    @EntityGraph(attributePaths = {"item", "booker"})
+    Optional<Booking> findByIdAndOwnerId(Long bookingId, Long ownerId);
+
+    @EntityGraph(attributePaths = {"item", "booker"})
+    Optional<Booking> findWithItemAndBookerById(Long bookingId);
 }
\ No newline at end of file
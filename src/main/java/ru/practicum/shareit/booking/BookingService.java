@@ -1,5 +1,6 @@
 package ru.practicum.shareit.booking;
 
+import ru.practicum.shareit.booking.dto.BookingCountsDto;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.exceptions.NotOwnerException;
 
@@ -13,7 +14,7 @@ public interface BookingService {
 
     BookingDto getById(Long userId, Long id) throws NotOwnerException;
 
-    List<BookingDto> getAllBookingsByBooker(Long bookerId, String state);
+    List<BookingDto> getBookings(BookingFilter filter, int from, Integer size, String cursor);
 
-    List<BookingDto> getAllBookingsByOwner(Long ownerId, String state);
+    BookingCountsDto getBookingCounts(Long userId);
 }
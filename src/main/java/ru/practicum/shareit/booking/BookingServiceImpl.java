@@ -2,19 +2,30 @@ package ru.practicum.shareit.booking;
 
 import lombok.AllArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.hibernate.exception.ConstraintViolationException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Component;
 import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.booking.counter.BookingCounterService;
+import ru.practicum.shareit.booking.dto.BookingCountsDto;
 import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.dto.BookingView;
+import ru.practicum.shareit.booking.event.BookingEventPublisher;
+import ru.practicum.shareit.booking.event.BookingEventType;
 import ru.practicum.shareit.exceptions.ConditionsNotMetException;
 import ru.practicum.shareit.exceptions.NotFoundException;
 import ru.practicum.shareit.exceptions.NotOwnerException;
 import ru.practicum.shareit.item.ItemRepository;
 import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.pagination.OffsetPageRequest;
 import ru.practicum.shareit.user.User;
 import ru.practicum.shareit.user.UserRepository;
 
+import java.sql.SQLException;
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Optional;
 import java.util.stream.Collectors;
 
 @AllArgsConstructor
@@ -22,14 +33,28 @@ import java.util.stream.Collectors;
 @Slf4j
 public class BookingServiceImpl implements BookingService {
 
+    private static final String OVERLAP_CONSTRAINT = "ex_booking_overlap";
+    private static final String EXCLUSION_VIOLATION = "23P01";
+
     private final BookingRepository bookingRepository;
+    private final ArchivedBookingRepository archivedBookingRepository;
+    private final BookingQueryEngine bookingQueryEngine;
     private final UserRepository userRepository;
     private final ItemRepository itemRepository;
+    private final ItemBookingLocks itemBookingLocks;
+    private final ItemBookingSummaryService itemBookingSummaryService;
+    private final BookingEventPublisher bookingEventPublisher;
+    private final BookingCounterService bookingCounterService;
 
     @Override
     @Transactional
     public BookingDto addBooking(BookingDto bookingDto, Long userId) {
         log.info("Add booking: {}", bookingDto);
+        // A reversed range is a client error; on PostgreSQL tsrange() would otherwise fail the insert with a 500
+        if (bookingDto.getStart() == null || bookingDto.getEnd() == null
+                || !bookingDto.getStart().isBefore(bookingDto.getEnd())) {
+            throw new ConditionsNotMetException("Booking start must be before its end");
+        }
         User user = getUserById(userId);
 
         Item item = itemRepository.findById(bookingDto.getItemId())
@@ -39,23 +64,52 @@ public class BookingServiceImpl implements BookingService {
             throw new ConditionsNotMetException("Item with id " + bookingDto.getItemId() + " is not available");
         }
 
-        boolean hasOverlap = bookingRepository.existsByItemIdAndEndAfterAndStartBefore(item.getId(), bookingDto.getStart(), bookingDto.getEnd());
-        if (hasOverlap) {
+        itemBookingLocks.lockUntilCompletion(item.getId());
+        if (bookingRepository.existsOverlapping(item.getId(), BookingStatus.ACTIVE,
+                bookingDto.getStart(), bookingDto.getEnd())) {
             throw new ConditionsNotMetException("Reservation already exists");
         }
 
         Booking booking = BookingMapper.toBooking(bookingDto, item, user);
         booking.setStatus(BookingStatus.WAITING);
 
-        Booking savedBooking = bookingRepository.save(booking);
-        return BookingMapper.toBookingDto(savedBooking);
+        try {
+            Booking savedBooking = bookingRepository.saveAndFlush(booking);
+            itemBookingSummaryService.onBookingAdded(savedBooking);
+            bookingCounterService.onBookingsAdded(List.of(savedBooking));
+            bookingEventPublisher.record(savedBooking, BookingEventType.CREATED);
+            return BookingMapper.toBookingDto(savedBooking);
+        } catch (DataIntegrityViolationException e) {
+            if (!isOverlapViolation(e)) {
+                throw e;
+            }
+            log.info("Overlapping booking rejected by database: item={}", item.getId());
+            throw new ConditionsNotMetException("Reservation already exists");
+        }
+    }
+
+    /**
+     * Only the exclusion constraint means "already booked"; foreign key and not-null failures must surface as is.
+     */
+    private static boolean isOverlapViolation(DataIntegrityViolationException e) {
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (cause instanceof ConstraintViolationException violation
+                    && OVERLAP_CONSTRAINT.equalsIgnoreCase(violation.getConstraintName())) {
+                return true;
+            }
+            if (cause instanceof SQLException sqlException
+                    && EXCLUSION_VIOLATION.equals(sqlException.getSQLState())) {
+                return true;
+            }
+        }
+        return false;
     }
 
     @Override
     @Transactional
     public BookingDto approveBooking(Long userId, Long bookingId, Boolean approved) throws NotOwnerException {
         log.info("approveBooking: bookingId={}, userId={}", bookingId, userId);
-        Booking booking = bookingRepository.findByIdAndItemOwnerId(bookingId, userId)
+        Booking booking = bookingRepository.findByIdAndOwnerId(bookingId, userId)
                 .orElseThrow(() -> new NotOwnerException("User is not owner of item"));
 
         if (booking.getStatus() != BookingStatus.WAITING) {
@@ -64,7 +118,10 @@ public class BookingServiceImpl implements BookingService {
 
         booking.setStatus(approved ? BookingStatus.APPROVED : BookingStatus.REJECTED);
 
-        Booking updatedBooking = bookingRepository.save(booking);
+        Booking updatedBooking = bookingRepository.saveAndFlush(booking);
+        bookingCounterService.onStatusChanged(updatedBooking, BookingStatus.WAITING);
+        bookingEventPublisher.record(updatedBooking,
+                approved ? BookingEventType.APPROVED : BookingEventType.REJECTED);
 
         return BookingMapper.toBookingDto(updatedBooking);
     }
@@ -73,57 +130,64 @@ public class BookingServiceImpl implements BookingService {
     @Transactional(readOnly = true)
     public BookingDto getById(Long userId, Long id) throws NotOwnerException {
         log.info("getById: userId={}, id={}", userId, id);
-        Booking booking = getBookingById(id);
+        Optional<Booking> booking = bookingRepository.findWithItemAndBookerById(id);
+        if (booking.isPresent()) {
+            checkParticipant(userId, booking.get().getBooker(), booking.get().getItem());
+            return BookingMapper.toBookingDto(booking.get());
+        }
 
-        if (!booking.getBooker().getId().equals(userId) && !booking.getItem().getOwner().getId().equals(userId)) {
+        ArchivedBooking archived = archivedBookingRepository.findWithItemAndBookerById(id)
+                .orElseThrow(() -> new NotFoundException("Reservation with id " + id + " not found"));
+        checkParticipant(userId, archived.getBooker(), archived.getItem());
+        return BookingMapper.toBookingDto(archived);
+    }
+
+    private void checkParticipant(Long userId, User booker, Item item) throws NotOwnerException {
+        if (!booker.getId().equals(userId) && !item.getOwner().getId().equals(userId)) {
             throw new NotOwnerException("User is not owner of item");
         }
-
-        return BookingMapper.toBookingDto(booking);
     }
 
     @Override
     @Transactional(readOnly = true)
-    public List<BookingDto> getAllBookingsByBooker(Long bookerId, String state) {
-        log.info("getAllBookingsByBooker bookerId={}, state={}", bookerId, state);
-        getUserById(bookerId);
+    public List<BookingDto> getBookings(BookingFilter filter, int from, Integer size, String cursor) {
+        log.info("getBookings filter={}, from={}, size={}, cursor={}", filter, from, size, cursor);
+        if (filter.getBookerId() != null) {
+            getUserById(filter.getBookerId());
+        }
+        if (filter.getOwnerId() != null) {
+            getUserById(filter.getOwnerId());
+        }
 
-        List<Booking> bookings;
+        BookingCursor after = cursor != null ? BookingCursor.decode(cursor) : null;
+        Pageable page = toPage(from, size, cursor);
         LocalDateTime now = LocalDateTime.now();
-        bookings = switch (state.toUpperCase()) {
-            case "CURRENT" ->
-                    bookingRepository.findByBookerIdAndStartBeforeAndEndAfterOrderByStartDesc(bookerId, now, now);
-            case "PAST" -> bookingRepository.findByBookerIdAndEndBeforeOrderByStartDesc(bookerId, now);
-            case "FUTURE" -> bookingRepository.findByBookerIdAndStartAfterOrderByStartDesc(bookerId, now);
-            case "WAITING" ->
-                    bookingRepository.findByBookerIdAndStatusOrderByStartDesc(bookerId, BookingStatus.WAITING);
-            case "REJECTED" ->
-                    bookingRepository.findByBookerIdAndStatusOrderByStartDesc(bookerId, BookingStatus.REJECTED);
-            default -> bookingRepository.findByBookerIdOrderByStartDesc(bookerId);
-        };
+
+        List<BookingView> bookings;
+        if (filter.mayReadArchive()) {
+            bookings = bookingQueryEngine.findWithArchive(filter, now, after, page);
+        } else {
+            bookings = bookingQueryEngine.find(Booking.class, filter, now, after, page);
+        }
         return bookings.stream().map(BookingMapper::toBookingDto).collect(Collectors.toList());
     }
 
     @Override
     @Transactional(readOnly = true)
-    public List<BookingDto> getAllBookingsByOwner(Long ownerId, String state) {
-        log.info("getAllBookingsByOwner ownerId={}, state={}", ownerId, state);
-        getUserById(ownerId);
+    public BookingCountsDto getBookingCounts(Long userId) {
+        getUserById(userId);
+        return bookingCounterService.getCounts(userId);
+    }
 
-        List<Booking> bookings;
-        LocalDateTime now = LocalDateTime.now();
-        bookings = switch (state.toUpperCase()) {
-            case "CURRENT" ->
-                    bookingRepository.findByItemOwnerIdAndStartBeforeAndEndAfterOrderByStartDesc(ownerId, now, now);
-            case "PAST" -> bookingRepository.findByItemOwnerIdAndEndBeforeOrderByStartDesc(ownerId, now);
-            case "FUTURE" -> bookingRepository.findByItemOwnerIdAndStartAfterOrderByStartDesc(ownerId, now);
-            case "WAITING" ->
-                    bookingRepository.findByItemOwnerIdAndStatusOrderByStartDesc(ownerId, BookingStatus.WAITING);
-            case "REJECTED" ->
-                    bookingRepository.findByItemOwnerIdAndStatusOrderByStartDesc(ownerId, BookingStatus.REJECTED);
-            default -> bookingRepository.findByItemOwnerIdOrderByStartDesc(ownerId);
-        };
-        return bookings.stream().map(BookingMapper::toBookingDto).collect(Collectors.toList());
+    /**
+     * A cursor replaces the offset; without a size the list is unbounded.
+     */
+    private Pageable toPage(int from, Integer size, String cursor) {
+        long offset = cursor != null ? 0 : from;
+        if (size == null) {
+            return offset == 0 ? Pageable.unpaged() : OffsetPageRequest.of(offset, Integer.MAX_VALUE);
+        }
+        return OffsetPageRequest.of(offset, size);
     }
 
     @Transactional(readOnly = true)
@@ -131,10 +195,4 @@ public class BookingServiceImpl implements BookingService {
         return userRepository.findById(userId)
                 .orElseThrow(() -> new NotFoundException("User with id " + userId + " not found"));
     }
-
-    @Transactional(readOnly = true)
-    private Booking getBookingById(Long bookingId) {
-        return bookingRepository.findById(bookingId)
-                .orElseThrow(() -> new NotFoundException("Reservation with id " + bookingId + " not found"));
-    }
 }
@@ -0,0 +1,22 @@
+package ru.practicum.shareit.booking;
+
+import ru.practicum.shareit.exceptions.ConditionsNotMetException;
+
+import java.util.Locale;
+
+public enum BookingState {
+    ALL,
+    CURRENT,
+    PAST,
+    FUTURE,
+    WAITING,
+    REJECTED;
+
+    public static BookingState from(String state) {
+        try {
+            return valueOf(state.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new ConditionsNotMetException("Unknown state: " + state);
+        }
+    }
+}
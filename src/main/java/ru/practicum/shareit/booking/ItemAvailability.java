@@ -0,0 +1,46 @@
+package ru.practicum.shareit.booking;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.booking.dto.TimeWindowDto;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Free windows of an item: the gaps between its active (waiting or approved) bookings within a range.
+ * Read from the bookings table in one query on the caller's transaction, so every node and replica
+ * answers from the same rows the overlap check and the exclusion constraint see.
+ */
+@Component
+@RequiredArgsConstructor
+public class ItemAvailability {
+
+    private static final Comparator<BookingInterval> BY_START = Comparator.comparing(BookingInterval::getStartDate)
+            .thenComparing(BookingInterval::getId);
+
+    private final BookingRepository bookingRepository;
+
+    public List<TimeWindowDto> freeWindows(Long itemId, LocalDateTime from, LocalDateTime to) {
+        List<BookingInterval> busy = new ArrayList<>(
+                bookingRepository.findOverlappingIntervals(Set.of(itemId), BookingStatus.ACTIVE, from, to));
+        busy.sort(BY_START);
+        List<TimeWindowDto> windows = new ArrayList<>();
+        LocalDateTime cursor = from;
+        for (BookingInterval interval : busy) {
+            if (interval.getEndDate().isAfter(cursor)) {
+                if (interval.getStartDate().isAfter(cursor)) {
+                    windows.add(new TimeWindowDto(cursor, interval.getStartDate()));
+                }
+                cursor = interval.getEndDate();
+            }
+        }
+        if (cursor.isBefore(to)) {
+            windows.add(new TimeWindowDto(cursor, to));
+        }
+        return windows;
+    }
+}
@@ -0,0 +1,67 @@
+package ru.practicum.shareit.booking;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Collection;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Striped per-item locks serializing overlap check and insert on databases without an exclusion constraint (H2).
+ * A lock is held until the surrounding transaction completes, so the next booker sees the committed row.
+ */
+@Component
+public class ItemBookingLocks {
+
+    private final boolean enabled;
+    private final ReentrantLock[] stripes;
+
+    public ItemBookingLocks(@Value("${shareit.booking.item-locks.enabled:false}") boolean enabled,
+                            @Value("${shareit.booking.item-locks.stripes:256}") int stripes) {
+        this.enabled = enabled;
+        this.stripes = new ReentrantLock[stripes];
+        for (int i = 0; i < stripes; i++) {
+            this.stripes[i] = new ReentrantLock();
+        }
+    }
+
+    public void lockUntilCompletion(Long itemId) {
+        if (!enabled) {
+            return;
+        }
+        lockStripe(stripeOf(itemId));
+    }
+
+    public void lockAllUntilCompletion(Collection<Long> itemIds) {
+        if (!enabled) {
+            return;
+        }
+        itemIds.stream()
+                .map(this::stripeOf)
+                .distinct()
+                .sorted()
+                .forEach(this::lockStripe);
+    }
+
+    private int stripeOf(Long itemId) {
+        return Math.floorMod(itemId.hashCode(), stripes.length);
+    }
+
+    private void lockStripe(int stripe) {
+        ReentrantLock lock = stripes[stripe];
+        lock.lock();
+        try {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    lock.unlock();
+                }
+            });
+        } catch (IllegalStateException e) {
+            lock.unlock();
+            throw e;
+        }
+    }
+}
@@ -0,0 +1,37 @@
+package ru.practicum.shareit.booking;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.experimental.FieldDefaults;
+
+import java.time.LocalDateTime;
+
+/**
+ * Read model of the last finished and next upcoming booking of an item, as of a minute-truncated cutoff.
+ * The row answers correctly for every cutoff before {@code validUntil}.
+ */
+@Entity
+@Table(name = "item_booking_summary")
+@Data
+@FieldDefaults(level = AccessLevel.PRIVATE)
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ItemBookingSummary {
+    @Id
+    @Column(name = "item_id")
+    Long itemId;
+    @Column(name = "last_end")
+    LocalDateTime lastEnd;
+    @Column(name = "next_start")
+    LocalDateTime nextStart;
+    @Column(name = "valid_until", nullable = false)
+    LocalDateTime validUntil;
+}
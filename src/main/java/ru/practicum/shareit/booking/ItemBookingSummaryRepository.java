@@ -0,0 +1,43 @@
+package ru.practicum.shareit.booking;
+
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+public interface ItemBookingSummaryRepository extends JpaRepository<ItemBookingSummary, Long> {
+
+    @Query("select s from ItemBookingSummary s where s.itemId in :itemIds and s.validUntil > :cutoff")
+    List<ItemBookingSummary> findFresh(@Param("itemIds") Collection<Long> itemIds,
+                                       @Param("cutoff") LocalDateTime cutoff);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select s from ItemBookingSummary s where s.itemId in :itemIds")
+    List<ItemBookingSummary> lockAllById(@Param("itemIds") Collection<Long> itemIds);
+
+    @Query("select s.itemId from ItemBookingSummary s where s.validUntil <= :cutoff order by s.validUntil")
+    List<Long> findStaleItemIds(@Param("cutoff") LocalDateTime cutoff, Pageable pageable);
+
+    @Query("select i.id from Item i where not exists " +
+            "(select s.itemId from ItemBookingSummary s where s.itemId = i.id) order by i.id")
+    List<Long> findItemIdsWithoutSummary(Pageable pageable);
+
+    @Modifying
+    @Query("update ItemBookingSummary s set " +
+            "s.nextStart = case when s.nextStart is null or s.nextStart > :start then :start else s.nextStart end, " +
+            "s.validUntil = case when s.validUntil > :start then :start else s.validUntil end " +
+            "where s.itemId = :itemId")
+    int applyUpcomingBooking(@Param("itemId") Long itemId, @Param("start") LocalDateTime start);
+
+    @Modifying
+    @Query("update ItemBookingSummary s set s.validUntil = :cutoff " +
+            "where s.itemId in :itemIds and s.validUntil > :cutoff")
+    int invalidate(@Param("itemIds") Collection<Long> itemIds, @Param("cutoff") LocalDateTime cutoff);
+}
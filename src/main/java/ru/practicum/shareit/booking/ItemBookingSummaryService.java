@@ -0,0 +1,134 @@
+package ru.practicum.shareit.booking;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Maintains {@link ItemBookingSummary} rows. Both lastBooking and nextBooking are evaluated against the
+ * same cutoff, the current time truncated to the minute: lastBooking is the latest end before the cutoff,
+ * nextBooking the earliest start after it. New bookings tighten a row in place; rows whose validity has
+ * run out, or that are missing, are recomputed by the sweeper.
+ */
+@Component
+@Slf4j
+public class ItemBookingSummaryService {
+
+    private static final LocalDateTime NEVER = LocalDateTime.of(9999, 12, 31, 23, 59, 59);
+
+    private final ItemBookingSummaryRepository summaryRepository;
+    private final BookingRepository bookingRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final int batchSize;
+
+    public ItemBookingSummaryService(ItemBookingSummaryRepository summaryRepository,
+                                     BookingRepository bookingRepository,
+                                     TransactionTemplate transactionTemplate,
+                                     @Value("${shareit.booking.summary.batch-size:500}") int batchSize) {
+        this.summaryRepository = summaryRepository;
+        this.bookingRepository = bookingRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.batchSize = batchSize;
+    }
+
+    public static LocalDateTime cutoff(LocalDateTime now) {
+        return now.truncatedTo(ChronoUnit.MINUTES);
+    }
+
+    /**
+     * Returns the summaries still valid at the cutoff; items missing from the result need the aggregates.
+     */
+    public Map<Long, ItemBookingSummary> findFresh(Collection<Long> itemIds, LocalDateTime cutoff) {
+        return summaryRepository.findFresh(itemIds, cutoff).stream()
+                .collect(Collectors.toMap(ItemBookingSummary::getItemId, Function.identity()));
+    }
+
+    /**
+     * Must run in the transaction that inserts the booking; the row lock taken here orders it against the sweeper.
+     */
+    public void onBookingAdded(Booking booking) {
+        LocalDateTime cutoff = cutoff(LocalDateTime.now());
+        if (booking.getStart().isAfter(cutoff)) {
+            summaryRepository.applyUpcomingBooking(booking.getItem().getId(), booking.getStart());
+        } else {
+            summaryRepository.invalidate(List.of(booking.getItem().getId()), cutoff);
+        }
+    }
+
+    public void invalidate(Collection<Long> itemIds) {
+        summaryRepository.invalidate(itemIds, cutoff(LocalDateTime.now()));
+    }
+
+    @Scheduled(fixedDelayString = "${shareit.booking.summary.sweep-interval-ms:60000}")
+    public void sweep() {
+        LocalDateTime cutoff = cutoff(LocalDateTime.now());
+        int refreshed = 0;
+        List<Long> itemIds;
+        do {
+            itemIds = summaryRepository.findStaleItemIds(cutoff, PageRequest.of(0, batchSize));
+            refresh(itemIds, cutoff);
+            refreshed += itemIds.size();
+        } while (itemIds.size() == batchSize);
+        do {
+            itemIds = summaryRepository.findItemIdsWithoutSummary(PageRequest.of(0, batchSize));
+            refresh(itemIds, cutoff);
+            refreshed += itemIds.size();
+        } while (itemIds.size() == batchSize);
+        if (refreshed > 0) {
+            log.debug("Refreshed {} item booking summaries as of {}", refreshed, cutoff);
+        }
+    }
+
+    private void refresh(List<Long> itemIds, LocalDateTime cutoff) {
+        if (itemIds.isEmpty()) {
+            return;
+        }
+        transactionTemplate.executeWithoutResult(status -> {
+            Map<Long, ItemBookingSummary> existing = summaryRepository.lockAllById(itemIds).stream()
+                    .collect(Collectors.toMap(ItemBookingSummary::getItemId, Function.identity()));
+            Map<Long, LocalDateTime> lastEnds = toDateMap(bookingRepository.findLastBookingEnds(itemIds, cutoff));
+            Map<Long, LocalDateTime> nextStarts = toDateMap(bookingRepository.findNextBookingStarts(itemIds, cutoff));
+            Map<Long, LocalDateTime> pendingEnds = toDateMap(bookingRepository.findEarliestEndsFrom(itemIds, cutoff));
+
+            List<ItemBookingSummary> summaries = itemIds.stream()
+                    .map(itemId -> {
+                        ItemBookingSummary summary = existing.get(itemId);
+                        LocalDateTime validUntil = earliest(nextStarts.get(itemId), pendingEnds.get(itemId));
+                        if (summary == null) {
+                            // a booking committed concurrently may be missing here; re-check on the next sweep
+                            summary = ItemBookingSummary.builder().itemId(itemId).build();
+                            validUntil = earliest(validUntil, cutoff.plusMinutes(1));
+                        }
+                        summary.setLastEnd(lastEnds.get(itemId));
+                        summary.setNextStart(nextStarts.get(itemId));
+                        summary.setValidUntil(validUntil);
+                        return summary;
+                    })
+                    .toList();
+            summaryRepository.saveAll(summaries);
+        });
+    }
+
+    private static LocalDateTime earliest(LocalDateTime first, LocalDateTime second) {
+        if (first == null) {
+            return second != null ? second : NEVER;
+        }
+        return second != null && second.isBefore(first) ? second : first;
+    }
+
+    private static Map<Long, LocalDateTime> toDateMap(List<ItemBookingDate> dates) {
+        return dates.stream()
+                .collect(Collectors.toMap(ItemBookingDate::getItemId, ItemBookingDate::getBookingDate));
+    }
+}
@@ -0,0 +1,322 @@
+package ru.practicum.shareit.booking.counter;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.booking.Booking;
+import ru.practicum.shareit.booking.BookingStatus;
+import ru.practicum.shareit.booking.dto.BookingCountsDto;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+
+/**
+ * Keeps {@code booking_counters} current. Status counts change only with writes and are applied in the
+ * writing transaction. The time-based counts (CURRENT, PAST, FUTURE) are exact as of the watermark:
+ * writers classify new bookings against it while holding it shared, and the sweeper moves bookings whose
+ * start or end fell between the old and the new watermark while holding it exclusively. Until the
+ * watermark exists nothing is applied: the rebuild that creates it counts everything.
+ */
+@Component
+@Slf4j
+public class BookingCounterService {
+
+    private static final Comparator<CounterKey> KEY_ORDER = Comparator.comparing(CounterKey::userId)
+            .thenComparing(CounterKey::role);
+
+    private static final String INSERT_WATERMARK =
+            "INSERT INTO booking_counter_watermark (id, swept_at) VALUES (:id, :at)";
+
+    private static final String ALL_BOOKINGS =
+            "(SELECT item_id, booker_id, start_date, end_date, status FROM bookings " +
+            "UNION ALL SELECT item_id, booker_id, start_date, end_date, status FROM bookings_archive)";
+
+    private static final String COUNT_COLUMNS =
+            "SUM(CASE WHEN b.start_date <= :at AND b.end_date >= :at THEN 1 ELSE 0 END), " +
+            "SUM(CASE WHEN b.end_date < :at THEN 1 ELSE 0 END), " +
+            "SUM(CASE WHEN b.start_date > :at THEN 1 ELSE 0 END), " +
+            "SUM(CASE WHEN b.status = 'WAITING' THEN 1 ELSE 0 END), " +
+            "SUM(CASE WHEN b.status = 'REJECTED' THEN 1 ELSE 0 END)";
+
+    private static final String INSERT_COUNTERS = "INSERT INTO booking_counters " +
+            "(user_id, role, current_count, past_count, future_count, waiting_count, rejected_count) ";
+
+    private static final String REBUILD_BOOKER = INSERT_COUNTERS + "SELECT b.booker_id, 'BOOKER', " + COUNT_COLUMNS +
+            " FROM " + ALL_BOOKINGS + " b GROUP BY b.booker_id";
+
+    private static final String REBUILD_OWNER = INSERT_COUNTERS + "SELECT i.owner_id, 'OWNER', " + COUNT_COLUMNS +
+            " FROM " + ALL_BOOKINGS + " b JOIN items i ON i.id = b.item_id GROUP BY i.owner_id";
+
+    private static final String DELETE_COUNTERS = "DELETE FROM booking_counters";
+
+    private static final String ENSURE_ROW_POSTGRES = INSERT_COUNTERS + "VALUES (:userId, :role, 0, 0, 0, 0, 0) " +
+            "ON CONFLICT (user_id, role) DO NOTHING";
+
+    private static final String ENSURE_ROW_H2 =
+            "MERGE INTO booking_counters (user_id, role) KEY (user_id, role) VALUES (:userId, :role)";
+
+    private static final String APPLY_DELTA = "UPDATE booking_counters SET " +
+            "current_count = current_count + :current, past_count = past_count + :past, " +
+            "future_count = future_count + :future, waiting_count = waiting_count + :waiting, " +
+            "rejected_count = rejected_count + :rejected WHERE user_id = :userId AND role = :role";
+
+    private static final String SELECT_TRANSITIONS = "SELECT b.booker_id, i.owner_id, b.start_date, b.end_date " +
+            "FROM bookings b JOIN items i ON i.id = b.item_id " +
+            "WHERE (b.start_date > :from AND b.start_date <= :to) OR (b.end_date >= :from AND b.end_date < :to)";
+
+    private static final String SELECT_COUNTERS = "SELECT role, current_count, past_count, future_count, " +
+            "waiting_count, rejected_count FROM booking_counters WHERE user_id = :userId";
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final BookingCounterWatermarkRepository watermarkRepository;
+    private final TransactionTemplate transactionTemplate;
+    private volatile String ensureRow;
+
+    public BookingCounterService(NamedParameterJdbcTemplate jdbcTemplate,
+                                 BookingCounterWatermarkRepository watermarkRepository,
+                                 PlatformTransactionManager transactionManager) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.watermarkRepository = watermarkRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    /**
+     * Builds the counters from the booking tables the first time the application runs against a database.
+     * Leftover counter rows are replaced, so the only key that can clash is the watermark of a concurrent
+     * build; any other failure leaves the watermark absent and the next sweep tries again.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void initialize() {
+        if (watermarkRepository.existsById(BookingCounterWatermark.ID)) {
+            return;
+        }
+        Timestamp at = Timestamp.valueOf(LocalDateTime.now());
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                jdbcTemplate.update(DELETE_COUNTERS, new MapSqlParameterSource());
+                jdbcTemplate.update(INSERT_WATERMARK, new MapSqlParameterSource()
+                        .addValue("id", BookingCounterWatermark.ID)
+                        .addValue("at", at));
+                MapSqlParameterSource params = new MapSqlParameterSource("at", at);
+                int bookers = jdbcTemplate.update(REBUILD_BOOKER, params);
+                int owners = jdbcTemplate.update(REBUILD_OWNER, params);
+                log.info("Booking counters built for {} bookers and {} owners", bookers, owners);
+            });
+        } catch (DataAccessException e) {
+            if (watermarkRepository.existsById(BookingCounterWatermark.ID)) {
+                log.info("Booking counters were built by another instance");
+            } else {
+                log.warn("Building booking counters failed, retrying on the next sweep: {}", e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Must run in the transaction that inserts the bookings.
+     */
+    public void onBookingsAdded(Collection<Booking> bookings) {
+        if (bookings.isEmpty()) {
+            return;
+        }
+        Optional<BookingCounterWatermark> watermark = watermarkRepository.findForShare(BookingCounterWatermark.ID);
+        if (watermark.isEmpty()) {
+            return;
+        }
+        LocalDateTime at = watermark.get().getSweptAt();
+        Map<CounterKey, Delta> deltas = new TreeMap<>(KEY_ORDER);
+        for (Booking booking : bookings) {
+            for (CounterKey key : keys(booking.getBooker().getId(), booking.getOwnerId())) {
+                Delta delta = deltas.computeIfAbsent(key, k -> new Delta());
+                delta.add(TimeState.at(booking.getStart(), booking.getEnd(), at), 1);
+                delta.add(booking.getStatus(), 1);
+            }
+        }
+        apply(deltas);
+    }
+
+    /**
+     * Must run in the transaction that changes the status.
+     */
+    public void onStatusChanged(Booking booking, BookingStatus previous) {
+        if (watermarkRepository.findForShare(BookingCounterWatermark.ID).isEmpty()) {
+            return;
+        }
+        Map<CounterKey, Delta> deltas = new TreeMap<>(KEY_ORDER);
+        for (CounterKey key : keys(booking.getBooker().getId(), booking.getOwnerId())) {
+            Delta delta = deltas.computeIfAbsent(key, k -> new Delta());
+            delta.add(previous, -1);
+            delta.add(booking.getStatus(), 1);
+        }
+        apply(deltas);
+    }
+
+    public BookingCountsDto getCounts(Long userId) {
+        Map<BookingCounterRole, BookingCountsDto.Counts> counts = new EnumMap<>(BookingCounterRole.class);
+        jdbcTemplate.query(SELECT_COUNTERS, new MapSqlParameterSource("userId", userId), rs -> {
+            counts.put(BookingCounterRole.valueOf(rs.getString(1)), new BookingCountsDto.Counts(
+                    rs.getLong(2), rs.getLong(3), rs.getLong(4), rs.getLong(5), rs.getLong(6)));
+        });
+        return BookingCountsDto.builder()
+                .booker(counts.getOrDefault(BookingCounterRole.BOOKER, new BookingCountsDto.Counts()))
+                .owner(counts.getOrDefault(BookingCounterRole.OWNER, new BookingCountsDto.Counts()))
+                .build();
+    }
+
+    @Scheduled(fixedDelayString = "${shareit.booking.counters.sweep-interval-ms:60000}")
+    public void sweep() {
+        if (!watermarkRepository.existsById(BookingCounterWatermark.ID)) {
+            initialize();
+            return;
+        }
+        Integer moved = transactionTemplate.execute(status -> {
+            Optional<BookingCounterWatermark> watermark =
+                    watermarkRepository.findForUpdate(BookingCounterWatermark.ID);
+            if (watermark.isEmpty()) {
+                return 0;
+            }
+            LocalDateTime from = watermark.get().getSweptAt();
+            LocalDateTime to = LocalDateTime.now();
+            Map<CounterKey, Delta> deltas = new TreeMap<>(KEY_ORDER);
+            jdbcTemplate.query(SELECT_TRANSITIONS, new MapSqlParameterSource()
+                    .addValue("from", Timestamp.valueOf(from))
+                    .addValue("to", Timestamp.valueOf(to)), rs -> {
+                LocalDateTime start = rs.getTimestamp(3).toLocalDateTime();
+                LocalDateTime end = rs.getTimestamp(4).toLocalDateTime();
+                TimeState before = TimeState.at(start, end, from);
+                TimeState after = TimeState.at(start, end, to);
+                if (before != after) {
+                    for (CounterKey key : keys(rs.getLong(1), rs.getLong(2))) {
+                        Delta delta = deltas.computeIfAbsent(key, k -> new Delta());
+                        delta.add(before, -1);
+                        delta.add(after, 1);
+                    }
+                }
+            });
+            apply(deltas);
+            watermark.get().setSweptAt(to);
+            return deltas.size();
+        });
+        if (moved != null && moved > 0) {
+            log.debug("Booking counters swept, {} counter rows changed", moved);
+        }
+    }
+
+    /**
+     * Updates existing rows in one batch; rows that do not exist yet are created with an insert that
+     * ignores a concurrent creator, all in the caller's transaction, and then updated.
+     */
+    private void apply(Map<CounterKey, Delta> deltas) {
+        List<Map.Entry<CounterKey, Delta>> changes = deltas.entrySet().stream()
+                .filter(entry -> !entry.getValue().isEmpty())
+                .toList();
+        if (changes.isEmpty()) {
+            return;
+        }
+        int[] updated = jdbcTemplate.batchUpdate(APPLY_DELTA, changes.stream()
+                .map(entry -> entry.getValue().toParams(entry.getKey()))
+                .toArray(SqlParameterSource[]::new));
+        List<Map.Entry<CounterKey, Delta>> missing = new ArrayList<>();
+        for (int i = 0; i < updated.length; i++) {
+            if (updated[i] == 0) {
+                missing.add(changes.get(i));
+            }
+        }
+        if (missing.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.batchUpdate(ensureRowStatement(), missing.stream()
+                .map(entry -> new MapSqlParameterSource()
+                        .addValue("userId", entry.getKey().userId())
+                        .addValue("role", entry.getKey().role().name()))
+                .toArray(SqlParameterSource[]::new));
+        jdbcTemplate.batchUpdate(APPLY_DELTA, missing.stream()
+                .map(entry -> entry.getValue().toParams(entry.getKey()))
+                .toArray(SqlParameterSource[]::new));
+    }
+
+    private String ensureRowStatement() {
+        if (ensureRow == null) {
+            ensureRow = jdbcTemplate.getJdbcTemplate().execute((ConnectionCallback<String>) connection ->
+                    "PostgreSQL".equals(connection.getMetaData().getDatabaseProductName())
+                            ? ENSURE_ROW_POSTGRES : ENSURE_ROW_H2);
+        }
+        return ensureRow;
+    }
+
+    private static List<CounterKey> keys(Long bookerId, Long ownerId) {
+        return List.of(new CounterKey(bookerId, BookingCounterRole.BOOKER),
+                new CounterKey(ownerId, BookingCounterRole.OWNER));
+    }
+
+    private enum TimeState {
+        CURRENT,
+        PAST,
+        FUTURE;
+
+        static TimeState at(LocalDateTime start, LocalDateTime end, LocalDateTime instant) {
+            if (start.isAfter(instant)) {
+                return FUTURE;
+            }
+            return end.isBefore(instant) ? PAST : CURRENT;
+        }
+    }
+
+    private record CounterKey(Long userId, BookingCounterRole role) {
+    }
+
+    private static class Delta {
+        long current;
+        long past;
+        long future;
+        long waiting;
+        long rejected;
+
+        void add(TimeState state, int sign) {
+            switch (state) {
+                case CURRENT -> current += sign;
+                case PAST -> past += sign;
+                case FUTURE -> future += sign;
+            }
+        }
+
+        void add(BookingStatus status, int sign) {
+            if (status == BookingStatus.WAITING) {
+                waiting += sign;
+            } else if (status == BookingStatus.REJECTED) {
+                rejected += sign;
+            }
+        }
+
+        boolean isEmpty() {
+            return current == 0 && past == 0 && future == 0 && waiting == 0 && rejected == 0;
+        }
+
+        SqlParameterSource toParams(CounterKey key) {
+            return new MapSqlParameterSource()
+                    .addValue("userId", key.userId())
+                    .addValue("role", key.role().name())
+                    .addValue("current", current)
+                    .addValue("past", past)
+                    .addValue("future", future)
+                    .addValue("waiting", waiting)
+                    .addValue("rejected", rejected);
+        }
+    }
+}
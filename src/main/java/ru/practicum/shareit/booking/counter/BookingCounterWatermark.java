@@ -0,0 +1,32 @@
+package ru.practicum.shareit.booking.counter;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.experimental.FieldDefaults;
+
+import java.time.LocalDateTime;
+
+/**
+ * Single row holding the instant the time-based counters were last brought up to date.
+ */
+@Entity
+@Table(name = "booking_counter_watermark")
+@Data
+@FieldDefaults(level = AccessLevel.PRIVATE)
+@NoArgsConstructor
+@AllArgsConstructor
+public class BookingCounterWatermark {
+
+    public static final int ID = 1;
+
+    @Id
+    Integer id;
+    @Column(name = "swept_at", nullable = false)
+    LocalDateTime sweptAt;
+}
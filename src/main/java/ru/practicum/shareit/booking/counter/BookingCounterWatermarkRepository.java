@@ -0,0 +1,23 @@
+package ru.practicum.shareit.booking.counter;
+
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Optional;
+
+public interface BookingCounterWatermarkRepository extends JpaRepository<BookingCounterWatermark, Integer> {
+
+    /**
+     * Writers hold the row shared so the sweeper cannot advance the watermark under them.
+     */
+    @Lock(LockModeType.PESSIMISTIC_READ)
+    @Query("select w from BookingCounterWatermark w where w.id = :id")
+    Optional<BookingCounterWatermark> findForShare(@Param("id") Integer id);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select w from BookingCounterWatermark w where w.id = :id")
+    Optional<BookingCounterWatermark> findForUpdate(@Param("id") Integer id);
+}
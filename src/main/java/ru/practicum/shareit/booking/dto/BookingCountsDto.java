@@ -0,0 +1,38 @@
+package ru.practicum.shareit.booking.dto;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.experimental.FieldDefaults;
+
+/**
+ * Badge totals for GET /bookings/counts, for the bookings a user made and those made on their items.
+ */
+@Data
+@Builder
+@AllArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE)
+public class BookingCountsDto {
+    Counts booker;
+    Counts owner;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @FieldDefaults(level = AccessLevel.PRIVATE)
+    public static class Counts {
+        @JsonProperty("CURRENT")
+        long current;
+        @JsonProperty("PAST")
+        long past;
+        @JsonProperty("FUTURE")
+        long future;
+        @JsonProperty("WAITING")
+        long waiting;
+        @JsonProperty("REJECTED")
+        long rejected;
+    }
+}
@@ -5,8 +5,6 @@ import lombok.Builder;
 import lombok.Data;
 import lombok.experimental.FieldDefaults;
 import ru.practicum.shareit.booking.BookingStatus;
-import ru.practicum.shareit.item.model.Item;
-import ru.practicum.shareit.user.User;
 
 import java.time.LocalDateTime;
 
@@ -18,7 +16,7 @@ public class BookingDto {
     LocalDateTime start;
     LocalDateTime end;
     Long itemId;
-    Item item;
-    User booker;
+    ItemShortDto item;
+    UserShortDto booker;
     BookingStatus status;
 }
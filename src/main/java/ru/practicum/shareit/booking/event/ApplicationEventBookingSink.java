@@ -0,0 +1,22 @@
+package ru.practicum.shareit.booking.event;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Hands events to in-process {@code @EventListener} methods on the relay thread.
+ */
+@Component
+@RequiredArgsConstructor
+public class ApplicationEventBookingSink implements BookingEventSink {
+
+    private final ApplicationEventPublisher applicationEventPublisher;
+
+    @Override
+    public void publish(List<BookingEventMessage> events) {
+        events.forEach(applicationEventPublisher::publishEvent);
+    }
+}
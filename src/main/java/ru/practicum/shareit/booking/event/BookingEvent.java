@@ -0,0 +1,55 @@
+package ru.practicum.shareit.booking.event;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.SequenceGenerator;
+import jakarta.persistence.Table;
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.experimental.FieldDefaults;
+
+import java.time.LocalDateTime;
+
+/**
+ * Outbox row written in the same transaction as the booking change it describes. The id only orders
+ * events roughly across bookings; bookingVersion is the booking's optimistic lock version after the
+ * change and orders the events of one booking.
+ */
+@Entity
+@Table(name = "booking_events")
+@Data
+@FieldDefaults(level = AccessLevel.PRIVATE)
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BookingEvent {
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "booking_events_seq")
+    @SequenceGenerator(name = "booking_events_seq", sequenceName = "booking_events_seq", allocationSize = 50)
+    Long id;
+    @Column(name = "booking_id", nullable = false)
+    Long bookingId;
+    @Column(name = "booker_id", nullable = false)
+    Long bookerId;
+    @Column(name = "owner_id", nullable = false)
+    Long ownerId;
+    @Column(name = "booking_version", nullable = false)
+    Long bookingVersion;
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    BookingEventType type;
+    @Column(nullable = false)
+    String payload;
+    @Column(name = "created_at", nullable = false)
+    LocalDateTime createdAt;
+    @Column(name = "published_at")
+    LocalDateTime publishedAt;
+}
@@ -0,0 +1,26 @@
+package ru.practicum.shareit.booking.event;
+
+import lombok.Value;
+
+import java.time.LocalDateTime;
+
+/**
+ * What sinks receive. Delivery is at least once, so consumers should de-duplicate on {@code eventId};
+ * {@code bookingVersion} orders the events of one booking.
+ */
+@Value
+public class BookingEventMessage {
+    Long eventId;
+    Long bookingId;
+    Long bookerId;
+    Long ownerId;
+    Long bookingVersion;
+    BookingEventType type;
+    String payload;
+    LocalDateTime createdAt;
+
+    static BookingEventMessage of(BookingEvent event) {
+        return new BookingEventMessage(event.getId(), event.getBookingId(), event.getBookerId(), event.getOwnerId(),
+                event.getBookingVersion(), event.getType(), event.getPayload(), event.getCreatedAt());
+    }
+}
@@ -0,0 +1,48 @@
+package ru.practicum.shareit.booking.event;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.booking.Booking;
+import ru.practicum.shareit.booking.BookingMapper;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+
+/**
+ * Writes outbox rows; callers must be inside the transaction that changes the booking and must have
+ * flushed the change, so the booking version recorded with the event is the one written.
+ */
+@Component
+@RequiredArgsConstructor
+public class BookingEventPublisher {
+
+    private final BookingEventRepository bookingEventRepository;
+    private final ObjectMapper objectMapper;
+
+    public void record(Booking booking, BookingEventType type) {
+        bookingEventRepository.save(toEvent(booking, type, LocalDateTime.now()));
+    }
+
+    public void recordAll(Collection<Booking> bookings, BookingEventType type) {
+        LocalDateTime now = LocalDateTime.now();
+        bookingEventRepository.saveAll(bookings.stream().map(booking -> toEvent(booking, type, now)).toList());
+    }
+
+    private BookingEvent toEvent(Booking booking, BookingEventType type, LocalDateTime createdAt) {
+        try {
+            return BookingEvent.builder()
+                    .bookingId(booking.getId())
+                    .bookerId(booking.getBooker().getId())
+                    .ownerId(booking.getOwnerId())
+                    .bookingVersion(booking.getVersion())
+                    .type(type)
+                    .payload(objectMapper.writeValueAsString(BookingMapper.toBookingDto(booking)))
+                    .createdAt(createdAt)
+                    .build();
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Cannot serialize booking " + booking.getId(), e);
+        }
+    }
+}
@@ -0,0 +1,143 @@
+package ru.practicum.shareit.booking.event;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayDeque;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BinaryOperator;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Polls the outbox and publishes events to every sink. A batch is marked published in the
+ * transaction that locked it, so a crash or a failing sink leads to redelivery, never to loss.
+ * Relays on several nodes split work with SKIP LOCKED. Per-booking order follows the booking version
+ * stored on each event, not the pooled id: a booking whose older event is held elsewhere or fell outside
+ * the batch is left for a later run, and the events of one booking are published by version.
+ */
+@Component
+@Slf4j
+public class BookingEventRelay {
+
+    /**
+     * Order of the events of one booking; events written before booking_version existed all carry 0.
+     */
+    private static final Comparator<BookingEvent> ORDER = Comparator.comparing(BookingEvent::getBookingVersion)
+            .thenComparing(BookingEvent::getId);
+
+    private final BookingEventRepository bookingEventRepository;
+    private final List<BookingEventSink> sinks;
+    private final TransactionTemplate transactionTemplate;
+    private final int batchSize;
+    private final Duration retention;
+    private final Timer lag;
+    private final AtomicLong pending = new AtomicLong();
+    private final AtomicLong oldestPendingSeconds = new AtomicLong();
+
+    public BookingEventRelay(BookingEventRepository bookingEventRepository,
+                             List<BookingEventSink> sinks,
+                             TransactionTemplate transactionTemplate,
+                             MeterRegistry meterRegistry,
+                             @Value("${shareit.events.batch-size:100}") int batchSize,
+                             @Value("${shareit.events.retention-hours:72}") long retentionHours) {
+        this.bookingEventRepository = bookingEventRepository;
+        this.sinks = sinks;
+        this.transactionTemplate = transactionTemplate;
+        this.batchSize = batchSize;
+        this.retention = Duration.ofHours(retentionHours);
+        this.lag = Timer.builder("shareit.booking.events.lag")
+                .description("Time from outbox write to publication")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        Gauge.builder("shareit.booking.events.pending", pending, AtomicLong::get).register(meterRegistry);
+        Gauge.builder("shareit.booking.events.oldest.pending.seconds", oldestPendingSeconds, AtomicLong::get)
+                .register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${shareit.events.relay-interval-ms:1000}")
+    public void relay() {
+        try {
+            Integer published;
+            do {
+                published = transactionTemplate.execute(status -> publishBatch());
+            } while (published != null && published == batchSize);
+        } catch (RuntimeException e) {
+            log.warn("Booking event relay failed, batch will be retried: {}", e.getMessage());
+        } finally {
+            updateBacklogGauges();
+        }
+    }
+
+    @Scheduled(cron = "${shareit.events.cleanup-cron:0 0 * * * *}")
+    public void deletePublished() {
+        Integer deleted = transactionTemplate.execute(status ->
+                bookingEventRepository.deletePublishedBefore(LocalDateTime.now().minus(retention)));
+        log.debug("Deleted {} published booking events", deleted);
+    }
+
+    private int publishBatch() {
+        List<BookingEvent> batch = bookingEventRepository.lockUnpublished(PageRequest.of(0, batchSize));
+        if (batch.isEmpty()) {
+            return 0;
+        }
+        Set<Long> bookingIds = batch.stream().map(BookingEvent::getBookingId).collect(Collectors.toSet());
+        Set<Long> lockedIds = batch.stream().map(BookingEvent::getId).collect(Collectors.toSet());
+        Map<Long, BookingEvent> firstLocked = batch.stream().collect(Collectors.toMap(
+                BookingEvent::getBookingId, Function.identity(), BinaryOperator.minBy(ORDER)));
+        Set<Long> blocked = bookingEventRepository.findPendingOutside(bookingIds, lockedIds).stream()
+                .filter(other -> ORDER.compare(other, firstLocked.get(other.getBookingId())) < 0)
+                .map(BookingEvent::getBookingId)
+                .collect(Collectors.toSet());
+        List<BookingEvent> ready = inBookingOrder(batch.stream()
+                .filter(event -> !blocked.contains(event.getBookingId()))
+                .toList());
+
+        List<BookingEventMessage> messages = ready.stream().map(BookingEventMessage::of).toList();
+        for (BookingEventSink sink : sinks) {
+            try {
+                sink.publish(messages);
+            } catch (Exception e) {
+                throw new IllegalStateException("Sink " + sink.getClass().getSimpleName() + " failed", e);
+            }
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        ready.forEach(event -> {
+            event.setPublishedAt(now);
+            lag.record(Duration.between(event.getCreatedAt(), now));
+        });
+        return ready.size();
+    }
+
+    /**
+     * Keeps the batch's id order across bookings but puts each booking's own events in version order.
+     */
+    private static List<BookingEvent> inBookingOrder(List<BookingEvent> events) {
+        Map<Long, Deque<BookingEvent>> byBooking = events.stream()
+                .sorted(ORDER)
+                .collect(Collectors.groupingBy(BookingEvent::getBookingId, Collectors.toCollection(ArrayDeque::new)));
+        return events.stream().map(event -> byBooking.get(event.getBookingId()).poll()).toList();
+    }
+
+    private void updateBacklogGauges() {
+        pending.set(bookingEventRepository.countByPublishedAtIsNull());
+        oldestPendingSeconds.set(bookingEventRepository.findFirstByPublishedAtIsNullOrderByIdAsc()
+                .map(event -> Duration.between(event.getCreatedAt(), LocalDateTime.now()).toSeconds())
+                .orElse(0L));
+    }
+}
@@ -0,0 +1,43 @@
+package ru.practicum.shareit.booking.event;
+
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+public interface BookingEventRepository extends JpaRepository<BookingEvent, Long> {
+
+    /**
+     * Locks the oldest unpublished events, skipping rows another relay already holds (lock timeout -2).
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = "-2"))
+    @Query("select e from BookingEvent e where e.publishedAt is null order by e.id")
+    List<BookingEvent> lockUnpublished(Pageable pageable);
+
+    /**
+     * Unpublished events of the given bookings that are not part of the caller's locked batch.
+     */
+    @Query("select e from BookingEvent e where e.publishedAt is null " +
+            "and e.bookingId in :bookingIds and e.id not in :lockedIds")
+    List<BookingEvent> findPendingOutside(@Param("bookingIds") Collection<Long> bookingIds,
+                                          @Param("lockedIds") Collection<Long> lockedIds);
+
+    long countByPublishedAtIsNull();
+
+    Optional<BookingEvent> findFirstByPublishedAtIsNullOrderByIdAsc();
+
+    @Modifying
+    @Query("delete from BookingEvent e where e.publishedAt < :before")
+    int deletePublishedBefore(@Param("before") LocalDateTime before);
+}
@@ -0,0 +1,12 @@
+package ru.practicum.shareit.booking.event;
+
+import java.util.List;
+
+/**
+ * Destination of relayed booking events. A sink must either accept the whole batch or throw,
+ * in which case the batch is retried; events arrive in creation order per booking.
+ */
+public interface BookingEventSink {
+
+    void publish(List<BookingEventMessage> events) throws Exception;
+}
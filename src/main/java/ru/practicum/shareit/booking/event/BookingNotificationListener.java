@@ -0,0 +1,22 @@
+package ru.practicum.shareit.booking.event;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+@Component
+@Slf4j
+public class BookingNotificationListener {
+
+    @EventListener
+    public void onBookingEvent(BookingEventMessage event) {
+        switch (event.getType()) {
+            case CREATED -> log.info("Notify owner {}: new booking {} awaits approval",
+                    event.getOwnerId(), event.getBookingId());
+            case APPROVED -> log.info("Notify booker {}: booking {} approved",
+                    event.getBookerId(), event.getBookingId());
+            case REJECTED -> log.info("Notify booker {}: booking {} rejected",
+                    event.getBookerId(), event.getBookingId());
+        }
+    }
+}
@@ -0,0 +1,40 @@
+package ru.practicum.shareit.booking.event;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+/**
+ * Appends events as NDJSON to a local file, a stand-in for an external queue.
+ */
+@Component
+@ConditionalOnProperty(name = "shareit.events.file.path")
+public class FileBookingSink implements BookingEventSink {
+
+    private final Path path;
+    private final ObjectMapper objectMapper;
+
+    public FileBookingSink(@Value("${shareit.events.file.path}") Path path, ObjectMapper objectMapper) {
+        this.path = path;
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    public synchronized void publish(List<BookingEventMessage> events) throws IOException {
+        try (OutputStream out = Files.newOutputStream(path, StandardOpenOption.CREATE, StandardOpenOption.APPEND,
+                StandardOpenOption.SYNC)) {
+            for (BookingEventMessage event : events) {
+                out.write(objectMapper.writeValueAsBytes(event));
+                out.write('\n');
+            }
+        }
+    }
+}
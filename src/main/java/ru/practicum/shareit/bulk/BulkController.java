@@ -0,0 +1,51 @@
+package ru.practicum.shareit.bulk;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import ru.practicum.shareit.bulk.dto.BulkImportResult;
+
+import java.io.InputStream;
+
+@RestController
+@RequiredArgsConstructor
+public class BulkController {
+
+    private static final MediaType NDJSON = MediaType.parseMediaType("application/x-ndjson");
+
+    private final BulkService bulkService;
+
+    @PostMapping("/items/bulk")
+    public BulkImportResult importItems(@RequestHeader("X-Sharer-User-Id") Long userId,
+                                        @RequestHeader(value = HttpHeaders.CONTENT_TYPE, required = false) String contentType,
+                                        InputStream body) {
+        return bulkService.importItems(userId, body, BulkFormat.fromContentType(contentType));
+    }
+
+    @PostMapping("/bookings/bulk")
+    public BulkImportResult importBookings(@RequestHeader("X-Sharer-User-Id") Long userId,
+                                           @RequestHeader(value = HttpHeaders.CONTENT_TYPE, required = false) String contentType,
+                                           InputStream body) {
+        return bulkService.importBookings(userId, body, BulkFormat.fromContentType(contentType));
+    }
+
+    @GetMapping("/items/export")
+    public ResponseEntity<StreamingResponseBody> exportItems(@RequestHeader("X-Sharer-User-Id") Long userId) {
+        return ResponseEntity.ok()
+                .contentType(NDJSON)
+                .body(out -> bulkService.exportItems(userId, out));
+    }
+
+    @GetMapping("/bookings/export")
+    public ResponseEntity<StreamingResponseBody> exportBookings(@RequestHeader("X-Sharer-User-Id") Long userId) {
+        return ResponseEntity.ok()
+                .contentType(NDJSON)
+                .body(out -> bulkService.exportBookings(userId, out));
+    }
+}
@@ -0,0 +1,10 @@
+package ru.practicum.shareit.bulk;
+
+public enum BulkFormat {
+    NDJSON,
+    CSV;
+
+    public static BulkFormat fromContentType(String contentType) {
+        return contentType != null && contentType.toLowerCase().contains("csv") ? CSV : NDJSON;
+    }
+}
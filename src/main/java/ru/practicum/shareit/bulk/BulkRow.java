@@ -0,0 +1,9 @@
+package ru.practicum.shareit.bulk;
+
+import lombok.Value;
+
+@Value
+class BulkRow<T> {
+    long lineNumber;
+    T value;
+}
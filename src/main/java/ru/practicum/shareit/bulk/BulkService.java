@@ -0,0 +1,17 @@
+package ru.practicum.shareit.bulk;
+
+import ru.practicum.shareit.bulk.dto.BulkImportResult;
+
+import java.io.InputStream;
+import java.io.OutputStream;
+
+public interface BulkService {
+
+    BulkImportResult importItems(Long ownerId, InputStream body, BulkFormat format);
+
+    BulkImportResult importBookings(Long ownerId, InputStream body, BulkFormat format);
+
+    void exportItems(Long ownerId, OutputStream out);
+
+    void exportBookings(Long ownerId, OutputStream out);
+}
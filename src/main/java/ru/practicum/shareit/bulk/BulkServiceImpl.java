@@ -0,0 +1,416 @@
+package ru.practicum.shareit.bulk;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceException;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.booking.ArchivedBookingRepository;
+import ru.practicum.shareit.booking.Booking;
+import ru.practicum.shareit.booking.BookingInterval;
+import ru.practicum.shareit.booking.BookingMapper;
+import ru.practicum.shareit.booking.BookingRepository;
+import ru.practicum.shareit.booking.BookingStatus;
+import ru.practicum.shareit.booking.ItemBookingLocks;
+import ru.practicum.shareit.booking.ItemBookingSummaryService;
+import ru.practicum.shareit.booking.counter.BookingCounterService;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.event.BookingEventPublisher;
+import ru.practicum.shareit.booking.event.BookingEventType;
+import ru.practicum.shareit.bulk.dto.BookingImportDto;
+import ru.practicum.shareit.bulk.dto.BulkImportResult;
+import ru.practicum.shareit.bulk.dto.BulkRowError;
+import ru.practicum.shareit.exceptions.NotFoundException;
+import ru.practicum.shareit.item.ItemMapper;
+import ru.practicum.shareit.item.ItemRepository;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.search.ItemSearchIndex;
+import ru.practicum.shareit.request.ItemRequest;
+import ru.practicum.shareit.request.ItemRequestMatcher;
+import ru.practicum.shareit.request.ItemRequestRepository;
+import ru.practicum.shareit.user.User;
+import ru.practicum.shareit.user.UserRepository;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Streams uploads line by line and persists them in chunks, one transaction per chunk.
+ * The next line is only read once the previous chunk is committed, so a fast client is throttled
+ * by the database instead of buffering the file in memory. A chunk the database rejects is retried
+ * row by row, so only the offending rows are reported.
+ */
+@Service
+@Slf4j
+public class BulkServiceImpl implements BulkService {
+
+    private static final byte[] NEW_LINE = "\n".getBytes(StandardCharsets.UTF_8);
+
+    /**
+     * Imported bookings are requests awaiting the owner's decision; approving or rejecting one goes
+     * through the regular API, so an owner cannot settle a booking the booker never saw.
+     */
+    private static final Set<BookingStatus> IMPORTABLE_STATUSES = EnumSet.of(BookingStatus.WAITING);
+
+    private final ItemRepository itemRepository;
+    private final UserRepository userRepository;
+    private final BookingRepository bookingRepository;
+    private final ArchivedBookingRepository archivedBookingRepository;
+    private final ItemSearchIndex itemSearchIndex;
+    private final ItemRequestRepository itemRequestRepository;
+    private final ItemRequestMatcher itemRequestMatcher;
+    private final ItemBookingLocks itemBookingLocks;
+    private final ItemBookingSummaryService itemBookingSummaryService;
+    private final BookingEventPublisher bookingEventPublisher;
+    private final BookingCounterService bookingCounterService;
+    private final TransactionTemplate transactionTemplate;
+    private final EntityManager entityManager;
+    private final ObjectMapper objectMapper;
+    private final Validator validator;
+    private final int chunkSize;
+    private final int maxReportedErrors;
+
+    public BulkServiceImpl(ItemRepository itemRepository,
+                           UserRepository userRepository,
+                           BookingRepository bookingRepository,
+                           ArchivedBookingRepository archivedBookingRepository,
+                           ItemSearchIndex itemSearchIndex,
+                           ItemRequestRepository itemRequestRepository,
+                           ItemRequestMatcher itemRequestMatcher,
+                           ItemBookingLocks itemBookingLocks,
+                           ItemBookingSummaryService itemBookingSummaryService,
+                           BookingEventPublisher bookingEventPublisher,
+                           BookingCounterService bookingCounterService,
+                           TransactionTemplate transactionTemplate,
+                           EntityManager entityManager,
+                           ObjectMapper objectMapper,
+                           Validator validator,
+                           @Value("${shareit.bulk.chunk-size:500}") int chunkSize,
+                           @Value("${shareit.bulk.max-reported-errors:1000}") int maxReportedErrors) {
+        this.itemRepository = itemRepository;
+        this.userRepository = userRepository;
+        this.bookingRepository = bookingRepository;
+        this.archivedBookingRepository = archivedBookingRepository;
+        this.itemSearchIndex = itemSearchIndex;
+        this.itemRequestRepository = itemRequestRepository;
+        this.itemRequestMatcher = itemRequestMatcher;
+        this.itemBookingLocks = itemBookingLocks;
+        this.itemBookingSummaryService = itemBookingSummaryService;
+        this.bookingEventPublisher = bookingEventPublisher;
+        this.bookingCounterService = bookingCounterService;
+        this.transactionTemplate = transactionTemplate;
+        this.entityManager = entityManager;
+        this.objectMapper = objectMapper;
+        this.validator = validator;
+        this.chunkSize = chunkSize;
+        this.maxReportedErrors = maxReportedErrors;
+    }
+
+    @Override
+    public BulkImportResult importItems(Long ownerId, InputStream body, BulkFormat format) {
+        log.info("Bulk import of items: ownerId={}, format={}", ownerId, format);
+        checkUserExists(ownerId);
+        BulkImportResult result = new BulkImportResult();
+        readChunks(body, format, ItemDto.class, result, chunk -> saveItems(ownerId, chunk, result));
+        log.info("Bulk import of items finished: imported={}, failed={}", result.getImported(), result.getFailed());
+        return result;
+    }
+
+    @Override
+    public BulkImportResult importBookings(Long ownerId, InputStream body, BulkFormat format) {
+        log.info("Bulk import of bookings: ownerId={}, format={}", ownerId, format);
+        checkUserExists(ownerId);
+        BulkImportResult result = new BulkImportResult();
+        readChunks(body, format, BookingImportDto.class, result, chunk -> saveBookings(ownerId, chunk, result));
+        log.info("Bulk import of bookings finished: imported={}, failed={}", result.getImported(), result.getFailed());
+        return result;
+    }
+
+    @Override
+    public void exportItems(Long ownerId, OutputStream out) {
+        transactionTemplate.execute(status -> {
+            try (Stream<Item> items = itemRepository.streamByOwnerId(ownerId)) {
+                items.forEach(item -> {
+                    writeLine(out, ItemMapper.toDto(item));
+                    entityManager.detach(item);
+                });
+            }
+            return null;
+        });
+    }
+
+    /**
+     * Archived bookings first, then the live table, so the export covers the owner's whole history.
+     */
+    @Override
+    public void exportBookings(Long ownerId, OutputStream out) {
+        transactionTemplate.execute(status -> {
+            try (Stream<BookingDto> bookings = Stream.concat(archivedBookingRepository.streamOwnerBookings(ownerId),
+                            bookingRepository.streamOwnerBookings(ownerId))
+                    .map(BookingMapper::toBookingDto)) {
+                bookings.forEach(booking -> writeLine(out, booking));
+            }
+            return null;
+        });
+    }
+
+    private <T> void readChunks(InputStream body, BulkFormat format, Class<T> rowType, BulkImportResult result,
+                                Consumer<List<BulkRow<T>>> chunkHandler) {
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(body, StandardCharsets.UTF_8))) {
+            long lineNumber = 0;
+            List<String> header = null;
+            if (format == BulkFormat.CSV) {
+                String headerLine = reader.readLine();
+                lineNumber++;
+                if (headerLine == null) {
+                    return;
+                }
+                header = CsvLine.split(headerLine);
+            }
+
+            List<BulkRow<T>> chunk = new ArrayList<>(chunkSize);
+            String line;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                if (line.isBlank()) {
+                    continue;
+                }
+                try {
+                    T value = format == BulkFormat.CSV
+                            ? objectMapper.convertValue(CsvLine.toMap(header, line), rowType)
+                            : objectMapper.readValue(line, rowType);
+                    Set<ConstraintViolation<T>> violations = validator.validate(value);
+                    if (!violations.isEmpty()) {
+                        result.fail(lineNumber, violations.stream()
+                                .map(v -> v.getPropertyPath() + " " + v.getMessage())
+                                .collect(Collectors.joining("; ")), maxReportedErrors);
+                        continue;
+                    }
+                    chunk.add(new BulkRow<>(lineNumber, value));
+                } catch (JsonProcessingException | IllegalArgumentException e) {
+                    result.fail(lineNumber, "Malformed row: " + e.getMessage(), maxReportedErrors);
+                }
+                if (chunk.size() == chunkSize) {
+                    chunkHandler.accept(chunk);
+                    chunk = new ArrayList<>(chunkSize);
+                }
+            }
+            if (!chunk.isEmpty()) {
+                chunkHandler.accept(chunk);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Same rules as a single create: a row answering a request must name an existing one, which it closes;
+     * only rows without a request are matched against open requests.
+     */
+    private void saveItems(Long ownerId, List<BulkRow<ItemDto>> rows, BulkImportResult result) {
+        List<BulkRowError> rejected = new ArrayList<>();
+        try {
+            List<Item> saved = transactionTemplate.execute(status -> {
+                User owner = entityManager.getReference(User.class, ownerId);
+                Set<Long> requestIds = rows.stream()
+                        .map(row -> row.getValue().getRequest())
+                        .filter(Objects::nonNull)
+                        .collect(Collectors.toSet());
+                Map<Long, ItemRequest> requests = itemRequestRepository.findAllById(requestIds).stream()
+                        .collect(Collectors.toMap(ItemRequest::getId, Function.identity()));
+
+                List<Item> items = new ArrayList<>();
+                for (BulkRow<ItemDto> row : rows) {
+                    Long requestId = row.getValue().getRequest();
+                    if (requestId != null && !requests.containsKey(requestId)) {
+                        rejected.add(new BulkRowError(row.getLineNumber(), "Request with id " + requestId
+                                + " not found"));
+                        continue;
+                    }
+                    Item item = ItemMapper.fromDto(row.getValue(), owner);
+                    item.setRequest(requestId != null ? requests.get(requestId) : null);
+                    items.add(item);
+                }
+                itemRepository.saveAll(items);
+                entityManager.flush();
+                for (Item item : items) {
+                    if (item.getRequest() != null) {
+                        itemRequestMatcher.close(item.getRequest().getId());
+                    } else {
+                        itemRequestMatcher.matchAfterCommit(item);
+                    }
+                }
+                entityManager.clear();
+                return items;
+            });
+            rejected.forEach(error -> result.fail(error.getLine(), error.getMessage(), maxReportedErrors));
+            saved.forEach(itemSearchIndex::index);
+            result.succeeded(saved.size());
+        } catch (DataAccessException | PersistenceException e) {
+            retryRowByRow(rows, e, result, single -> saveItems(ownerId, single, result));
+        }
+    }
+
+    private void saveBookings(Long ownerId, List<BulkRow<BookingImportDto>> rows, BulkImportResult result) {
+        List<BulkRowError> rejected = new ArrayList<>();
+        try {
+            Integer saved = transactionTemplate.execute(status -> {
+                Set<Long> itemIds = rows.stream().map(row -> row.getValue().getItemId()).collect(Collectors.toSet());
+                Set<Long> bookerIds = rows.stream()
+                        .map(row -> row.getValue().getBookerId())
+                        .collect(Collectors.toSet());
+                itemBookingLocks.lockAllUntilCompletion(itemIds);
+                Map<Long, Item> items = itemRepository.findAllById(itemIds).stream()
+                        .collect(Collectors.toMap(Item::getId, Function.identity()));
+                Map<Long, User> bookers = userRepository.findAllById(bookerIds).stream()
+                        .collect(Collectors.toMap(User::getId, Function.identity()));
+                Map<Long, List<BookingInterval>> existing = findActiveIntervals(itemIds, rows);
+
+                List<Booking> accepted = new ArrayList<>();
+                for (BulkRow<BookingImportDto> row : rows) {
+                    String error = validateBooking(ownerId, row.getValue(), items, bookers, existing, accepted);
+                    if (error != null) {
+                        rejected.add(new BulkRowError(row.getLineNumber(), error));
+                        continue;
+                    }
+                    accepted.add(toBooking(row.getValue(), items, bookers));
+                }
+
+                bookingRepository.saveAll(accepted);
+                bookingEventPublisher.recordAll(accepted, BookingEventType.CREATED);
+                entityManager.flush();
+                bookingCounterService.onBookingsAdded(accepted);
+                if (!accepted.isEmpty()) {
+                    itemBookingSummaryService.invalidate(accepted.stream()
+                            .map(booking -> booking.getItem().getId())
+                            .collect(Collectors.toSet()));
+                }
+                entityManager.clear();
+                return accepted.size();
+            });
+            rejected.forEach(error -> result.fail(error.getLine(), error.getMessage(), maxReportedErrors));
+            result.succeeded(saved);
+        } catch (DataAccessException | PersistenceException e) {
+            retryRowByRow(rows, e, result, single -> saveBookings(ownerId, single, result));
+        }
+    }
+
+    /**
+     * Active bookings of the chunk's items within the chunk's overall time span, in one query.
+     */
+    private Map<Long, List<BookingInterval>> findActiveIntervals(Set<Long> itemIds,
+                                                                 List<BulkRow<BookingImportDto>> rows) {
+        LocalDateTime from = rows.stream().map(row -> row.getValue().getStart())
+                .min(Comparator.naturalOrder()).orElseThrow();
+        LocalDateTime to = rows.stream().map(row -> row.getValue().getEnd())
+                .max(Comparator.naturalOrder()).orElseThrow();
+        return bookingRepository.findOverlappingIntervals(itemIds, BookingStatus.ACTIVE, from, to).stream()
+                .collect(Collectors.groupingBy(BookingInterval::getItemId));
+    }
+
+    private String validateBooking(Long ownerId, BookingImportDto row, Map<Long, Item> items,
+                                   Map<Long, User> bookers, Map<Long, List<BookingInterval>> existing,
+                                   List<Booking> accepted) {
+        Item item = items.get(row.getItemId());
+        if (item == null) {
+            return "Item with id " + row.getItemId() + " not found";
+        }
+        if (!item.getOwner().getId().equals(ownerId)) {
+            return "User with id " + ownerId + " is not owner of item " + row.getItemId();
+        }
+        if (!item.isAvailable()) {
+            return "Item with id " + row.getItemId() + " is not available";
+        }
+        if (!bookers.containsKey(row.getBookerId())) {
+            return "User with id " + row.getBookerId() + " not found";
+        }
+        if (!row.getStart().isBefore(row.getEnd())) {
+            return "Booking start must be before its end";
+        }
+        BookingStatus status = row.getStatus() != null ? row.getStatus() : BookingStatus.WAITING;
+        if (!IMPORTABLE_STATUSES.contains(status)) {
+            return "Status " + status + " cannot be imported";
+        }
+        if (BookingStatus.ACTIVE.contains(status)) {
+            boolean overlapsChunk = accepted.stream()
+                    .filter(booking -> booking.getItem().getId().equals(row.getItemId()))
+                    .filter(booking -> BookingStatus.ACTIVE.contains(booking.getStatus()))
+                    .anyMatch(booking -> booking.getStart().isBefore(row.getEnd())
+                            && booking.getEnd().isAfter(row.getStart()));
+            boolean overlapsExisting = existing.getOrDefault(row.getItemId(), List.of()).stream()
+                    .anyMatch(interval -> interval.getStartDate().isBefore(row.getEnd())
+                            && interval.getEndDate().isAfter(row.getStart()));
+            if (overlapsChunk || overlapsExisting) {
+                return "Reservation already exists";
+            }
+        }
+        return null;
+    }
+
+    private Booking toBooking(BookingImportDto row, Map<Long, Item> items, Map<Long, User> bookers) {
+        BookingDto bookingDto = BookingDto.builder()
+                .start(row.getStart())
+                .end(row.getEnd())
+                .itemId(row.getItemId())
+                .build();
+        Booking booking = BookingMapper.toBooking(bookingDto, items.get(row.getItemId()),
+                bookers.get(row.getBookerId()));
+        booking.setStatus(row.getStatus() != null ? row.getStatus() : BookingStatus.WAITING);
+        return booking;
+    }
+
+    /**
+     * Saves each row of a rejected chunk in its own transaction; a single row that still fails is reported
+     * with the database's reason.
+     */
+    private <T> void retryRowByRow(List<BulkRow<T>> rows, RuntimeException e, BulkImportResult result,
+                                   Consumer<List<BulkRow<T>>> saver) {
+        String cause = NestedExceptionUtils.getMostSpecificCause(e).getMessage();
+        if (rows.size() == 1) {
+            result.fail(rows.get(0).getLineNumber(), "Row rejected: " + cause, maxReportedErrors);
+            return;
+        }
+        log.warn("Bulk chunk of {} rows rejected, retrying row by row: {}", rows.size(), cause);
+        rows.forEach(row -> saver.accept(List.of(row)));
+    }
+
+    private void writeLine(OutputStream out, Object value) {
+        try {
+            out.write(objectMapper.writeValueAsBytes(value));
+            out.write(NEW_LINE);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void checkUserExists(Long userId) {
+        if (!userRepository.existsById(userId)) {
+            throw new NotFoundException("User with id " + userId + " not found");
+        }
+    }
+}
@@ -0,0 +1,27 @@
+package ru.practicum.shareit.bulk.dto;
+
+import jakarta.validation.constraints.NotNull;
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.experimental.FieldDefaults;
+import ru.practicum.shareit.booking.BookingStatus;
+
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE)
+public class BookingImportDto {
+    @NotNull
+    Long itemId;
+    @NotNull
+    Long bookerId;
+    @NotNull
+    LocalDateTime start;
+    @NotNull
+    LocalDateTime end;
+    BookingStatus status;
+}
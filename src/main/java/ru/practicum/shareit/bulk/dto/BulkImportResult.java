@@ -0,0 +1,30 @@
+package ru.practicum.shareit.bulk.dto;
+
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.experimental.FieldDefaults;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Getter
+@FieldDefaults(level = AccessLevel.PRIVATE)
+public class BulkImportResult {
+    long imported;
+    long failed;
+    final List<BulkRowError> errors = new ArrayList<>();
+    boolean errorsTruncated;
+
+    public void succeeded(long rows) {
+        imported += rows;
+    }
+
+    public void fail(long line, String message, int maxReportedErrors) {
+        failed++;
+        if (errors.size() < maxReportedErrors) {
+            errors.add(new BulkRowError(line, message));
+        } else {
+            errorsTruncated = true;
+        }
+    }
+}
@@ -0,0 +1,94 @@
+package ru.practicum.shareit.bulkhead;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import ru.practicum.shareit.exceptions.ErrorResponse;
+
+import java.io.IOException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Caps the number of requests doing database work below the size of the connection pool.
+ * With virtual threads Tomcat no longer limits concurrency, so without it every request
+ * would queue inside Hikari; here excess requests wait briefly and are then rejected with 503.
+ * A few connections stay outside the bulkhead for scheduled jobs and for the rare request that
+ * briefly holds a second connection, so admitted requests can never exhaust the pool between them.
+ */
+@Component
+@Order(DatabaseBulkheadFilter.ORDER)
+@Slf4j
+public class DatabaseBulkheadFilter extends OncePerRequestFilter {
+
+    public static final int ORDER = Ordered.HIGHEST_PRECEDENCE + 200;
+
+    private final boolean enabled;
+    private final Semaphore permits;
+    private final long acquireTimeoutMillis;
+    private final Counter rejected;
+    private final ObjectMapper objectMapper;
+
+    public DatabaseBulkheadFilter(@Value("${shareit.bulkhead.enabled:${spring.threads.virtual.enabled:false}}")
+                                  boolean enabled,
+                                  @Value("${shareit.bulkhead.permits:0}") int permits,
+                                  @Value("${spring.datasource.hikari.maximum-pool-size:10}") int poolSize,
+                                  @Value("${shareit.bulkhead.reserved-connections:2}") int reservedConnections,
+                                  @Value("${shareit.bulkhead.acquire-timeout-ms:1000}") long acquireTimeoutMillis,
+                                  MeterRegistry meterRegistry,
+                                  ObjectMapper objectMapper) {
+        this.enabled = enabled;
+        this.permits = new Semaphore(permits > 0 ? permits : Math.max(1, poolSize - reservedConnections), true);
+        this.acquireTimeoutMillis = acquireTimeoutMillis;
+        this.rejected = meterRegistry.counter("shareit.bulkhead.rejected");
+        this.objectMapper = objectMapper;
+        Gauge.builder("shareit.bulkhead.available", this.permits, Semaphore::availablePermits)
+                .register(meterRegistry);
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !enabled || request.getRequestURI().startsWith("/actuator");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        boolean acquired;
+        try {
+            acquired = permits.tryAcquire(acquireTimeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            acquired = false;
+        }
+        if (!acquired) {
+            rejected.increment();
+            log.warn("Rejecting {} {}: no database permit within {} ms",
+                    request.getMethod(), request.getRequestURI(), acquireTimeoutMillis);
+            response.setStatus(HttpStatus.SERVICE_UNAVAILABLE.value());
+            response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+            response.setHeader("Retry-After", "1");
+            objectMapper.writeValue(response.getOutputStream(),
+                    new ErrorResponse("Error service unavailable", "Too many concurrent requests, retry later"));
+            return;
+        }
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            permits.release();
+        }
+    }
+}
@@ -0,0 +1,59 @@
+package ru.practicum.shareit.datasource;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Remembers when each X-Sharer-User-Id last performed a successful write and pins that
+ * user's reads to the primary for the stickiness window, hiding replica lag from them.
+ */
+public class ReadYourWritesFilter extends OncePerRequestFilter {
+
+    private static final String USER_HEADER = "X-Sharer-User-Id";
+
+    private final long windowNanos;
+    private final Map<String, Long> lastWrites = new ConcurrentHashMap<>();
+
+    public ReadYourWritesFilter(RoutingProperties properties) {
+        this.windowNanos = properties.getStickinessWindow().toNanos();
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return windowNanos <= 0 || request.getHeader(USER_HEADER) == null;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        String userId = request.getHeader(USER_HEADER);
+        Long lastWrite = lastWrites.get(userId);
+        RoutingContext.setSticky(lastWrite != null && System.nanoTime() - lastWrite < windowNanos);
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            RoutingContext.clear();
+            if (isWrite(request.getMethod()) && response.getStatus() < 400) {
+                lastWrites.put(userId, System.nanoTime());
+            }
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${shareit.datasource.routing.health-check-interval-ms:5000}")
+    public void evictExpired() {
+        long now = System.nanoTime();
+        lastWrites.values().removeIf(lastWrite -> now - lastWrite >= windowNanos);
+    }
+
+    private static boolean isWrite(String method) {
+        return !"GET".equals(method) && !"HEAD".equals(method) && !"OPTIONS".equals(method);
+    }
+}
@@ -0,0 +1,25 @@
+package ru.practicum.shareit.datasource;
+
+/**
+ * Per-thread routing hint set by {@link ReadYourWritesFilter}: when sticky, read-only
+ * transactions stay on the primary so the caller sees its own recent writes.
+ */
+public final class RoutingContext {
+
+    private static final ThreadLocal<Boolean> STICKY = new ThreadLocal<>();
+
+    private RoutingContext() {
+    }
+
+    public static void setSticky(boolean sticky) {
+        STICKY.set(sticky);
+    }
+
+    public static boolean isSticky() {
+        return Boolean.TRUE.equals(STICKY.get());
+    }
+
+    public static void clear() {
+        STICKY.remove();
+    }
+}
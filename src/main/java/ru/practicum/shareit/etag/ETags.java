@@ -0,0 +1,51 @@
+package ru.practicum.shareit.etag;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.HexFormat;
+import java.util.Objects;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Strong entity tags built from version columns, so a tag can be checked without rendering the payload.
+ */
+public final class ETags {
+
+    private ETags() {
+    }
+
+    public static String of(Object... parts) {
+        return Arrays.stream(parts)
+                .map(part -> Objects.toString(part, ""))
+                .collect(Collectors.joining("-", "\"", "\""));
+    }
+
+    /**
+     * Tag over the given parts in order, e.g. the id and version of every row of a list representation.
+     */
+    public static String digest(String prefix, Stream<String> parts) {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+        parts.forEach(part -> digest.update((part + "\n").getBytes(StandardCharsets.UTF_8)));
+        return of(prefix, HexFormat.of().formatHex(digest.digest(), 0, 16));
+    }
+
+    /**
+     * Strong comparison against an If-Match header value; weak tags never match.
+     */
+    public static boolean matches(String ifMatch, String etag) {
+        if (ifMatch.trim().equals("*")) {
+            return true;
+        }
+        return Arrays.stream(ifMatch.split(","))
+                .map(String::trim)
+                .anyMatch(etag::equals);
+    }
+}
@@ -0,0 +1,8 @@
+package ru.practicum.shareit.etag;
+
+/**
+ * A representation together with the entity tag computed from the same loaded rows, so the two cannot
+ * describe different states. The body is null when the caller's If-None-Match already matched the tag.
+ */
+public record Tagged<T>(String etag, T body) {
+}
@@ -1,6 +1,7 @@
 package ru.practicum.shareit.exceptions;
 
 import org.springframework.http.HttpStatus;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
@@ -31,4 +32,16 @@ public class ErrorHandler {
     public ErrorResponse badRequest(final ConditionsNotMetException e) {
         return new ErrorResponse("Error bad request", e.getMessage());
     }
+
+    @ExceptionHandler
+    @ResponseStatus(HttpStatus.PRECONDITION_FAILED)
+    public ErrorResponse preconditionFailed(final PreconditionFailedException e) {
+        return new ErrorResponse("Error precondition failed", e.getMessage());
+    }
+
+    @ExceptionHandler
+    @ResponseStatus(HttpStatus.CONFLICT)
+    public ErrorResponse concurrentUpdate(final ObjectOptimisticLockingFailureException e) {
+        return new ErrorResponse("Error concurrent update", "The resource was modified concurrently, reload and retry");
+    }
 }
@@ -0,0 +1,161 @@
+package ru.practicum.shareit.idempotency;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.exceptions.ConditionsNotMetException;
+import ru.practicum.shareit.exceptions.DuplicateDataException;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Runs a create operation at most once per Idempotency-Key and user. Repeats get the stored response;
+ * concurrent duplicates on this node wait for the first execution instead of racing it, and duplicates
+ * on other nodes sharing the JDBC store are refused while the first is in progress. The operation and its
+ * stored response commit in one transaction: a crash in between leaves neither, and an execution that
+ * outlived its reservation and lost the key to a retry rolls back instead of committing a second time.
+ * Failed executions are not stored, so a retry after an error runs again.
+ */
+@Service
+@Slf4j
+public class IdempotencyService {
+
+    public static final String HEADER = "Idempotency-Key";
+
+    private static final int MAX_KEY_LENGTH = 255;
+
+    private final IdempotencyStore store;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate transactionTemplate;
+    private final Duration ttl;
+    private final Duration pendingTimeout;
+    private final Map<String, CompletableFuture<StoredResponse>> inFlight = new ConcurrentHashMap<>();
+
+    public IdempotencyService(IdempotencyStore store,
+                              ObjectMapper objectMapper,
+                              TransactionTemplate transactionTemplate,
+                              @Value("${shareit.idempotency.ttl-hours:24}") long ttlHours,
+                              @Value("${shareit.idempotency.pending-timeout-seconds:60}") long pendingTimeoutSeconds) {
+        this.store = store;
+        this.objectMapper = objectMapper;
+        this.transactionTemplate = transactionTemplate;
+        this.ttl = Duration.ofHours(ttlHours);
+        this.pendingTimeout = Duration.ofSeconds(pendingTimeoutSeconds);
+    }
+
+    public <T> T execute(String scope, Long userId, String idempotencyKey, Object request, Class<T> responseType,
+                         Supplier<T> action) {
+        if (idempotencyKey == null) {
+            return action.get();
+        }
+        if (idempotencyKey.isBlank() || idempotencyKey.length() > MAX_KEY_LENGTH) {
+            throw new ConditionsNotMetException(HEADER + " must be 1 to " + MAX_KEY_LENGTH + " characters");
+        }
+        String key = scope + ":" + userId + ":" + idempotencyKey;
+        String fingerprint = fingerprint(request);
+
+        CompletableFuture<StoredResponse> execution = new CompletableFuture<>();
+        CompletableFuture<StoredResponse> running = inFlight.putIfAbsent(key, execution);
+        if (running != null) {
+            log.info("Waiting for in-flight request with the same {}: {}", HEADER, key);
+            return read(await(running), fingerprint, responseType);
+        }
+
+        String token = UUID.randomUUID().toString();
+        boolean reserved = false;
+        try {
+            Optional<StoredResponse> stored = store.find(key);
+            if (stored.isPresent() && !stored.get().isPending()) {
+                execution.complete(stored.get());
+                return read(stored.get(), fingerprint, responseType);
+            }
+            if (stored.isPresent()
+                    || !store.reserve(key, token, fingerprint, LocalDateTime.now().plus(pendingTimeout))) {
+                throw new DuplicateDataException("A request with this " + HEADER + " is still in progress");
+            }
+            reserved = true;
+
+            Completed<T> completed = transactionTemplate.execute(status -> {
+                T value = action.get();
+                String body = serialize(key, value);
+                if (!store.complete(key, token, body, LocalDateTime.now().plus(ttl))) {
+                    throw new DuplicateDataException("The reservation for this " + HEADER
+                            + " expired and was taken over by a retry");
+                }
+                return new Completed<>(value, body);
+            });
+            execution.complete(new StoredResponse(fingerprint, completed.body()));
+            return completed.value();
+        } catch (RuntimeException e) {
+            if (reserved) {
+                store.release(key, token);
+            }
+            execution.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, execution);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${shareit.idempotency.eviction-interval-ms:60000}")
+    public void evictExpired() {
+        store.evictExpired();
+    }
+
+    private StoredResponse await(CompletableFuture<StoredResponse> running) {
+        try {
+            return running.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    private <T> T read(StoredResponse response, String fingerprint, Class<T> responseType) {
+        if (!response.getFingerprint().equals(fingerprint)) {
+            throw new ConditionsNotMetException(HEADER + " was already used with a different request");
+        }
+        try {
+            return objectMapper.readValue(response.getBody(), responseType);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Cannot read stored response", e);
+        }
+    }
+
+    private String serialize(String key, Object result) {
+        try {
+            return objectMapper.writeValueAsString(result);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Cannot store response for " + key, e);
+        }
+    }
+
+    private String fingerprint(Object request) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(objectMapper.writeValueAsBytes(request)));
+        } catch (JsonProcessingException | NoSuchAlgorithmException e) {
+            throw new IllegalStateException("Cannot fingerprint request", e);
+        }
+    }
+
+    private record Completed<T>(T value, String body) {
+    }
+}
@@ -0,0 +1,31 @@
+package ru.practicum.shareit.idempotency;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+public interface IdempotencyStore {
+
+    /**
+     * Returns the unexpired entry for the key, completed or still pending.
+     */
+    Optional<StoredResponse> find(String key);
+
+    /**
+     * Atomically claims the key for the execution identified by the token; false if an unexpired entry already
+     * exists. The claim is visible to other nodes immediately, outside any caller transaction.
+     */
+    boolean reserve(String key, String token, String fingerprint, LocalDateTime expiresAt);
+
+    /**
+     * Stores the response in the caller's transaction, so it commits or rolls back together with the work it
+     * describes. False if the reservation no longer belongs to the token, i.e. it expired and was claimed again.
+     */
+    boolean complete(String key, String token, String body, LocalDateTime expiresAt);
+
+    /**
+     * Drops a pending reservation after a failed execution so the client can retry.
+     */
+    void release(String key, String token);
+
+    void evictExpired();
+}
@@ -0,0 +1,84 @@
+package ru.practicum.shareit.idempotency;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Single-node store. A completed response is only published once the caller's transaction commits, so a
+ * rollback leaves the key pending and it is released like any other failed execution.
+ */
+@Component
+@ConditionalOnProperty(name = "shareit.idempotency.store", havingValue = "memory", matchIfMissing = true)
+public class InMemoryIdempotencyStore implements IdempotencyStore {
+
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+
+    @Override
+    public Optional<StoredResponse> find(String key) {
+        Entry entry = entries.get(key);
+        if (entry == null || entry.isExpired(LocalDateTime.now())) {
+            return Optional.empty();
+        }
+        return Optional.of(entry.response());
+    }
+
+    @Override
+    public boolean reserve(String key, String token, String fingerprint, LocalDateTime expiresAt) {
+        Entry reservation = new Entry(token, new StoredResponse(fingerprint, null), expiresAt);
+        LocalDateTime now = LocalDateTime.now();
+        return entries.compute(key, (k, existing) ->
+                existing == null || existing.isExpired(now) ? reservation : existing) == reservation;
+    }
+
+    @Override
+    public boolean complete(String key, String token, String body, LocalDateTime expiresAt) {
+        if (!isPendingFor(entries.get(key), token)) {
+            return false;
+        }
+        afterCommit(() -> entries.computeIfPresent(key, (k, existing) -> isPendingFor(existing, token)
+                ? new Entry(token, new StoredResponse(existing.response().getFingerprint(), body), expiresAt)
+                : existing));
+        return true;
+    }
+
+    @Override
+    public void release(String key, String token) {
+        entries.computeIfPresent(key, (k, existing) -> isPendingFor(existing, token) ? null : existing);
+    }
+
+    @Override
+    public void evictExpired() {
+        LocalDateTime now = LocalDateTime.now();
+        entries.values().removeIf(entry -> entry.isExpired(now));
+    }
+
+    private static boolean isPendingFor(Entry entry, String token) {
+        return entry != null && entry.token().equals(token) && entry.response().isPending();
+    }
+
+    private void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+
+    private record Entry(String token, StoredResponse response, LocalDateTime expiresAt) {
+        boolean isExpired(LocalDateTime now) {
+            return !expiresAt.isAfter(now);
+        }
+    }
+}
@@ -0,0 +1,61 @@
+package ru.practicum.shareit.idempotency;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+/**
+ * Shares keys between application nodes through the idempotency_keys table. Completion is a plain update on
+ * the caller's connection, so it joins the transaction that performed the operation.
+ */
+@Component
+@ConditionalOnProperty(name = "shareit.idempotency.store", havingValue = "jdbc")
+@RequiredArgsConstructor
+public class JdbcIdempotencyStore implements IdempotencyStore {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Override
+    public Optional<StoredResponse> find(String key) {
+        return jdbcTemplate.query("SELECT fingerprint, response FROM idempotency_keys " +
+                        "WHERE idempotency_key = ? AND expires_at > ?",
+                (rs, rowNum) -> new StoredResponse(rs.getString(1), rs.getString(2)),
+                key, LocalDateTime.now()).stream().findFirst();
+    }
+
+    @Override
+    public boolean reserve(String key, String token, String fingerprint, LocalDateTime expiresAt) {
+        jdbcTemplate.update("DELETE FROM idempotency_keys WHERE idempotency_key = ? AND expires_at <= ?",
+                key, LocalDateTime.now());
+        try {
+            jdbcTemplate.update("INSERT INTO idempotency_keys (idempotency_key, owner_token, fingerprint, " +
+                    "expires_at) VALUES (?, ?, ?, ?)", key, token, fingerprint, expiresAt);
+            return true;
+        } catch (DuplicateKeyException e) {
+            return false;
+        }
+    }
+
+    @Override
+    public boolean complete(String key, String token, String body, LocalDateTime expiresAt) {
+        return jdbcTemplate.update("UPDATE idempotency_keys SET response = ?, expires_at = ? " +
+                "WHERE idempotency_key = ? AND owner_token = ? AND response IS NULL",
+                body, expiresAt, key, token) == 1;
+    }
+
+    @Override
+    public void release(String key, String token) {
+        jdbcTemplate.update("DELETE FROM idempotency_keys " +
+                "WHERE idempotency_key = ? AND owner_token = ? AND response IS NULL", key, token);
+    }
+
+    @Override
+    public void evictExpired() {
+        jdbcTemplate.update("DELETE FROM idempotency_keys WHERE expires_at <= ?", LocalDateTime.now());
+    }
+}
@@ -0,0 +1,16 @@
+package ru.practicum.shareit.idempotency;
+
+import lombok.Value;
+
+/**
+ * Fingerprint of the original request and its serialized response; the response is null while pending.
+ */
+@Value
+public class StoredResponse {
+    String fingerprint;
+    String body;
+
+    public boolean isPending() {
+        return body == null;
+    }
+}
@@ -1,11 +1,19 @@
 package ru.practicum.shareit.item;
 
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import ru.practicum.shareit.item.model.Comment;
 
+import java.util.Collection;
 import java.util.List;
 
 public interface CommentRepository extends JpaRepository<Comment, Long> {
 
+    @EntityGraph(attributePaths = "author")
     List<Comment> findByItem_Id(Long itemId);
-}
\ No newline at end of file
+
+    @Query("select c from Comment c join fetch c.author where c.item.id in :itemIds order by c.id")
+    List<Comment> findByItemIdIn(@Param("itemIds") Collection<Long> itemIds);
+}
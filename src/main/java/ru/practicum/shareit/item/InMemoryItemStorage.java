@@ -1,99 +1,127 @@
 package ru.practicum.shareit.item;
 
-import lombok.AllArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.annotation.Profile;
 import org.springframework.stereotype.Repository;
 import ru.practicum.shareit.exceptions.NotFoundException;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.search.ItemTermIndex;
 
-import java.util.*;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
 
+/**
+ * Concurrent item store: ids come from an atomic sequence, owners map to id sets and search goes
+ * through the same term index as the embedded search mode. Items are copied on the way in and out,
+ * so callers never share mutable state with the store.
+ * Selected as the {@link ItemStorage} by the {@code inmemory} profile instead of {@link JpaItemStorage}.
+ */
 @Repository
-@AllArgsConstructor
+@Profile("inmemory")
 @Slf4j
 public class InMemoryItemStorage implements ItemStorage {
 
-    private final Map<Long, Item> items;
-    private final Map<Long, List<Item>> itemsList;
-
+    private final AtomicLong ids = new AtomicLong();
+    private final Map<Long, Item> items = new ConcurrentHashMap<>();
+    private final Map<Long, Set<Long>> itemsByOwner = new ConcurrentHashMap<>();
+    private final ItemTermIndex termIndex = new ItemTermIndex();
 
     @Override
     public Item getItem(Long id) {
-        return items.get(id);
+        Item item = items.get(id);
+        return item != null ? copy(item) : null;
     }
 
     @Override
     public List<Item> getUserItem(Long id) {
         log.info("Getting user item with id {}", id);
-        return itemsList.getOrDefault(id, new ArrayList<>());
+        return itemsByOwner.getOrDefault(id, Set.of()).stream()
+                .map(items::get)
+                .filter(Objects::nonNull)
+                .sorted(Comparator.comparing(Item::getId))
+                .map(InMemoryItemStorage::copy)
+                .toList();
     }
 
     @Override
     public Item createItem(Item item) {
         log.info("Creating new item {}", item);
-        Long itemId = getNextId();
-        item.setId(itemId);
-        items.put(itemId, item);
-        itemsList.computeIfAbsent(item.getOwner().getId(), k -> new ArrayList<>()).add(item);
-        return item;
+        Item stored = copy(item);
+        stored.setId(ids.incrementAndGet());
+        items.put(stored.getId(), stored);
+        itemsByOwner.compute(stored.getOwner().getId(), (ownerId, owned) -> {
+            Set<Long> result = owned == null ? ConcurrentHashMap.newKeySet() : owned;
+            result.add(stored.getId());
+            return result;
+        });
+        termIndex.index(stored.getId(), stored.getName(), stored.getDescription());
+        item.setId(stored.getId());
+        return copy(stored);
     }
 
     @Override
     public Item updateItem(ItemDto itemDto, Long itemId) {
         log.info("Updating item with id {}", itemId);
-        if (items.containsKey(itemId)) {
-            Item oldItem = items.get(itemId);
+        Item updated = items.computeIfPresent(itemId, (id, oldItem) -> {
+            Item newItem = copy(oldItem);
             if (itemDto.getName() != null) {
-                oldItem.setName(itemDto.getName());
+                newItem.setName(itemDto.getName());
             }
             if (itemDto.getDescription() != null) {
-                oldItem.setDescription(itemDto.getDescription());
+                newItem.setDescription(itemDto.getDescription());
             }
             if (itemDto.getAvailable() != null) {
-                oldItem.setAvailable(itemDto.getAvailable());
+                newItem.setAvailable(itemDto.getAvailable());
             }
-            items.put(oldItem.getId(), oldItem);
-            List<Item> itemNewList = itemsList.get(oldItem.getOwner().getId());
-            itemNewList.add(oldItem);
-
-            return oldItem;
+            termIndex.index(id, newItem.getName(), newItem.getDescription());
+            return newItem;
+        });
+        if (updated == null) {
+            throw new NotFoundException("Item not found");
         }
-        throw new NotFoundException("Item not found");
+        return copy(updated);
     }
 
     @Override
     public void deleteItem(Long id) {
         log.info("Deleting item with id {}", id);
-        if (!items.containsKey(id)) {
-            throw new NotFoundException("Item not found");
-        }
         Item item = items.remove(id);
-        List<Item> itemNewList = itemsList.get(item.getOwner().getId());
-        if (itemNewList != null) {
-            itemNewList.removeIf(i -> i.getId().equals(id));
-            if (itemNewList.isEmpty()) {
-                itemsList.remove(item.getOwner().getId());
-            }
+        if (item == null) {
+            throw new NotFoundException("Item not found");
         }
+        itemsByOwner.computeIfPresent(item.getOwner().getId(), (ownerId, owned) -> {
+            owned.remove(id);
+            return owned.isEmpty() ? null : owned;
+        });
+        termIndex.remove(id);
     }
 
     @Override
     public List<Item> searchItem(String searchString) {
         log.info("Searching for items with {}", searchString);
-        return items.values().stream()
-                .filter(item -> item.getName().equalsIgnoreCase(searchString) ||
-                        item.getDescription().equalsIgnoreCase(searchString))
+        return termIndex.search(searchString).stream()
+                .map(items::get)
+                .filter(Objects::nonNull)
                 .filter(Item::isAvailable)
+                .map(InMemoryItemStorage::copy)
                 .toList();
     }
 
-    private Long getNextId() {
-        long currentMaxId = items.keySet()
-                .stream()
-                .mapToLong(id -> id)
-                .max()
-                .orElse(0);
-        return ++currentMaxId;
+    private static Item copy(Item item) {
+        return Item.builder()
+                .id(item.getId())
+                .name(item.getName())
+                .description(item.getDescription())
+                .available(item.isAvailable())
+                .owner(item.getOwner())
+                .request(item.getRequest())
+                .version(item.getVersion())
+                .build();
     }
-}
\ No newline at end of file
+}
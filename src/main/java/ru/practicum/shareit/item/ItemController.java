@@ -2,6 +2,9 @@ package ru.practicum.shareit.item;
 
 import jakarta.validation.Valid;
 import lombok.AllArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PatchMapping;
@@ -12,10 +15,15 @@ import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
+import ru.practicum.shareit.booking.dto.TimeWindowDto;
+import ru.practicum.shareit.etag.Tagged;
 import ru.practicum.shareit.exceptions.NotOwnerException;
+import ru.practicum.shareit.idempotency.IdempotencyService;
 import ru.practicum.shareit.item.dto.CommentDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 @RestController
@@ -23,23 +31,34 @@ import java.util.List;
 @AllArgsConstructor
 public class ItemController {
     private final ItemService itemService;
+    private final IdempotencyService idempotencyService;
 
     @PostMapping
     public ItemDto createItem(@RequestBody @Valid ItemDto itemDto,
-                              @RequestHeader("X-Sharer-User-Id") Long userId) {
-        return itemService.createItem(itemDto, userId);
+                              @RequestHeader("X-Sharer-User-Id") Long userId,
+                              @RequestHeader(value = IdempotencyService.HEADER, required = false)
+                              String idempotencyKey) {
+        return idempotencyService.execute("items", userId, idempotencyKey, itemDto, ItemDto.class,
+                () -> itemService.createItem(itemDto, userId));
     }
 
     @PatchMapping("/{itemId}")
-    public ItemDto updateItem(@RequestBody ItemDto itemDto,
-                              @RequestHeader("X-Sharer-User-Id") Long userId,
-                              @PathVariable Long itemId) throws NotOwnerException {
-        return itemService.updateItem(itemDto, userId, itemId);
+    public ResponseEntity<ItemDto> updateItem(@RequestBody ItemDto itemDto,
+                                              @RequestHeader("X-Sharer-User-Id") Long userId,
+                                              @PathVariable Long itemId,
+                                              @RequestHeader(value = HttpHeaders.IF_MATCH, required = false)
+                                              String ifMatch) throws NotOwnerException {
+        Tagged<ItemDto> updated = itemService.updateItem(itemDto, userId, itemId, ifMatch);
+        return ResponseEntity.ok().eTag(updated.etag()).body(updated.body());
     }
 
     @GetMapping("/{id}")
-    public ItemDto getItem(@PathVariable Long id) {
-        return itemService.getItem(id);
+    public ItemDto getItem(@PathVariable Long id, WebRequest request) {
+        Tagged<ItemDto> item = itemService.getItem(id, request.getHeader(HttpHeaders.IF_NONE_MATCH));
+        if (request.checkNotModified(item.etag())) {
+            return null;
+        }
+        return item.body();
     }
 
     @GetMapping
@@ -52,6 +71,13 @@ public class ItemController {
         itemService.deleteItem(id);
     }
 
+    @GetMapping("/{id}/availability")
+    public List<TimeWindowDto> getAvailability(@PathVariable Long id,
+                                               @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+                                               @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to) {
+        return itemService.getFreeWindows(id, from, to);
+    }
+
     @GetMapping("/search")
     public List<ItemDto> searchItems(@RequestParam String text) {
         return itemService.searchItem(text);
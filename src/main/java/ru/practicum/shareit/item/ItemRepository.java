@@ -1,18 +1,34 @@
 package ru.practicum.shareit.item;
 
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.AvailableHints;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import ru.practicum.shareit.item.model.Item;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.stream.Stream;
 
 public interface ItemRepository extends JpaRepository<Item, Long> {
 
-    @Query(" select i from Item i " +
-            "where i.available = true and (upper(i.name) like upper(concat('%', ?1, '%')) " +
-            " or upper(i.description) like upper(concat('%', ?1, '%')))")
-    List<Item> search(@Param("text") String text);
+    @Query(value = "select i.* from items i " +
+            "where i.is_available = true " +
+            "and (upper(i.name) like upper(:pattern) or upper(i.description) like upper(:pattern)) " +
+            "order by upper(i.name) like upper(:pattern) desc, i.id",
+            nativeQuery = true)
+    List<Item> searchSubstring(@Param("pattern") String pattern);
 
     List<Item> findByOwner_id(long id);
+
+    List<Item> findByRequest_IdInOrderById(Collection<Long> requestIds);
+
+    @QueryHints({
+            @QueryHint(name = AvailableHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = AvailableHints.HINT_CACHE_MODE, value = "IGNORE")
+    })
+    @Query("select i from Item i where i.owner.id = :ownerId order by i.id")
+    Stream<Item> streamByOwnerId(@Param("ownerId") Long ownerId);
 }
\ No newline at end of file
@@ -1,19 +1,22 @@
 package ru.practicum.shareit.item;
 
+import ru.practicum.shareit.booking.dto.TimeWindowDto;
+import ru.practicum.shareit.etag.Tagged;
 import ru.practicum.shareit.exceptions.NotOwnerException;
 import ru.practicum.shareit.item.dto.CommentDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 public interface ItemService {
-    ItemDto getItem(Long id);
+    Tagged<ItemDto> getItem(Long id, String ifNoneMatch);
 
     List<ItemDto> getUserItem(long id);
 
     ItemDto createItem(ItemDto itemDto, Long id);
 
-    ItemDto updateItem(ItemDto itemDto, Long userId, Long itemId) throws NotOwnerException;
+    Tagged<ItemDto> updateItem(ItemDto itemDto, Long userId, Long itemId, String ifMatch) throws NotOwnerException;
 
     void deleteItem(Long id);
 
@@ -22,4 +25,6 @@ public interface ItemService {
     CommentDto addComment(Long itemId, long userId, CommentDto commentDto);
 
     List<CommentDto> getItemComments(Long itemId);
+
+    List<TimeWindowDto> getFreeWindows(Long itemId, LocalDateTime from, LocalDateTime to);
 }
\ No newline at end of file
@@ -2,21 +2,37 @@ package ru.practicum.shareit.item;
 
 import lombok.AllArgsConstructor;
 import org.springframework.stereotype.Service;
-import ru.practicum.shareit.booking.Booking;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.booking.ArchivedBookingRepository;
 import ru.practicum.shareit.booking.BookingRepository;
+import ru.practicum.shareit.booking.ItemAvailability;
+import ru.practicum.shareit.booking.ItemBookingDate;
+import ru.practicum.shareit.booking.ItemBookingSummary;
+import ru.practicum.shareit.booking.ItemBookingSummaryService;
+import ru.practicum.shareit.booking.dto.TimeWindowDto;
+import ru.practicum.shareit.etag.ETags;
+import ru.practicum.shareit.etag.Tagged;
 import ru.practicum.shareit.exceptions.ConditionsNotMetException;
 import ru.practicum.shareit.exceptions.NotFoundException;
 import ru.practicum.shareit.exceptions.NotOwnerException;
+import ru.practicum.shareit.exceptions.PreconditionFailedException;
 import ru.practicum.shareit.item.dto.CommentDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.model.Comment;
 import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.search.ItemSearchIndex;
+import ru.practicum.shareit.request.ItemRequest;
+import ru.practicum.shareit.request.ItemRequestMatcher;
+import ru.practicum.shareit.request.ItemRequestRepository;
 import ru.practicum.shareit.user.User;
 import ru.practicum.shareit.user.UserRepository;
 
 import java.time.LocalDateTime;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
 
 @Service
 @AllArgsConstructor
@@ -24,43 +40,71 @@ public class ItemServiceImpl implements ItemService {
     private final ItemRepository itemRepository;
     private final UserRepository userRepository;
     private final BookingRepository bookingRepository;
+    private final ArchivedBookingRepository archivedBookingRepository;
     private final CommentRepository commentRepository;
+    private final ItemSearchIndex itemSearchIndex;
+    private final ItemAvailability itemAvailability;
+    private final ItemBookingSummaryService itemBookingSummaryService;
+    private final ItemRequestRepository itemRequestRepository;
+    private final ItemRequestMatcher itemRequestMatcher;
 
+    /**
+     * The tag is checked against If-None-Match before the detail representation is mapped, so a revalidated
+     * item returns only its tag.
+     */
     @Override
-    public ItemDto getItem(Long id) {
+    @Transactional(readOnly = true)
+    public Tagged<ItemDto> getItem(Long id, String ifNoneMatch) {
         Item item = getItemById(id);
-
-        ItemDto dto = ItemMapper.toDto(item);
-
-        dto.setLastBooking(getLastBookingEnd(id));
-        dto.setNextBooking(getNextBookingStart(id));
-        dto.setComments(getItemComments(id));
-
-        return dto;
+        ItemDetails details = findDetails(item);
+        String etag = details.etag(item);
+        if (ifNoneMatch != null && ETags.matches(ifNoneMatch, etag)) {
+            return new Tagged<>(etag, null);
+        }
+        return new Tagged<>(etag, toDetailedDto(item, details));
     }
 
     @Override
+    @Transactional(readOnly = true)
     public List<ItemDto> getUserItem(long id) {
-        return itemRepository.findByOwner_id(id).stream()
-                .map(ItemMapper::toDto)
-                .toList();
+        return toDetailedDtos(itemRepository.findByOwner_id(id));
     }
 
     @Override
+    @Transactional
     public ItemDto createItem(ItemDto itemDto, Long id) {
         User owner = getUserById(id);
-        Item item = ItemMapper.fromDto(itemDto, owner);
-        return ItemMapper.toDto(itemRepository.save(item));
+        Item newItem = ItemMapper.fromDto(itemDto, owner);
+        if (itemDto.getRequest() != null) {
+            ItemRequest request = itemRequestRepository.findById(itemDto.getRequest())
+                    .orElseThrow(() -> new NotFoundException("Request with id " + itemDto.getRequest() + " not found"));
+            newItem.setRequest(request);
+        }
+        Item item = itemRepository.save(newItem);
+        itemSearchIndex.index(item);
+        if (item.getRequest() != null) {
+            itemRequestMatcher.close(item.getRequest().getId());
+        } else {
+            itemRequestMatcher.matchAfterCommit(item);
+        }
+        return ItemMapper.toDto(item);
     }
 
     @Override
-    public ItemDto updateItem(ItemDto itemDto, Long userId, Long itemId) throws NotOwnerException {
+    @Transactional
+    public Tagged<ItemDto> updateItem(ItemDto itemDto, Long userId, Long itemId, String ifMatch)
+            throws NotOwnerException {
         Item updateItem = getItemById(itemId);
 
         if (!updateItem.getOwner().getId().equals(userId)) {
             throw new NotOwnerException("User with id " + userId + " is not owner of this item");
         }
 
+        ItemDetails details = findDetails(updateItem);
+        if (ifMatch != null && !ETags.matches(ifMatch, details.etag(updateItem))) {
+            throw new PreconditionFailedException("Item with id " + itemId + " was modified");
+        }
+
         if (itemDto.getName() != null) {
             updateItem.setName(itemDto.getName());
         }
@@ -73,32 +117,42 @@ public class ItemServiceImpl implements ItemService {
             updateItem.setAvailable(itemDto.getAvailable());
         }
 
-        return ItemMapper.toDto(itemRepository.save(updateItem));
+        Item savedItem = itemRepository.saveAndFlush(updateItem);
+        itemSearchIndex.index(savedItem);
+        return new Tagged<>(details.etag(savedItem), ItemMapper.toDto(savedItem));
     }
 
     @Override
+    @Transactional
     public void deleteItem(Long id) {
         itemRepository.deleteById(id);
+        itemSearchIndex.remove(id);
     }
 
     @Override
+    @Transactional(readOnly = true)
     public List<ItemDto> searchItem(String text) {
         if (text == null || text.trim().isEmpty()) {
             return Collections.emptyList();
         }
-        return itemRepository.search(text.toUpperCase()).stream()
-                .filter(Item::isAvailable)
+        return itemSearchIndex.search(text).stream()
                 .map(ItemMapper::toDto)
                 .toList();
     }
 
+    /**
+     * Read-write so the rental check runs on the primary: a replica may not have the booking that just ended.
+     */
     @Override
+    @Transactional
     public CommentDto addComment(Long itemId, long userId, CommentDto commentDto) {
         User author = getUserById(userId);
 
         Item item = getItemById(itemId);
 
-        boolean hasUserRentedItem = bookingRepository.existsByItemIdAndBookerIdAndEndIsBefore(itemId, userId, LocalDateTime.now());
+        LocalDateTime now = LocalDateTime.now();
+        boolean hasUserRentedItem = bookingRepository.existsByItemIdAndBookerIdAndEndIsBefore(itemId, userId, now)
+                || archivedBookingRepository.existsByItemIdAndBookerIdAndEndIsBefore(itemId, userId, now);
         if (!hasUserRentedItem) {
             throw new ConditionsNotMetException("User with id " + userId + " is not rented yet");
         }
@@ -109,24 +163,83 @@ public class ItemServiceImpl implements ItemService {
     }
 
     @Override
+    @Transactional(readOnly = true)
     public List<CommentDto> getItemComments(Long itemId) {
         return commentRepository.findByItem_Id(itemId).stream()
                 .map(CommentMapper::toDtoComment)
                 .toList();
     }
 
-    private LocalDateTime getLastBookingEnd(Long itemId) {
-        LocalDateTime localDateTime = LocalDateTime.now().withSecond(0).withNano(0);
-        Booking lastBooking = bookingRepository.findFirstByItemIdAndEndBeforeOrderByEndDesc(itemId, localDateTime)
-                .orElse(null);
-        return lastBooking != null ? lastBooking.getEnd() : null;
+    /**
+     * On the primary like the booking it usually precedes, so a just-created item is never reported missing.
+     */
+    @Override
+    @Transactional
+    public List<TimeWindowDto> getFreeWindows(Long itemId, LocalDateTime from, LocalDateTime to) {
+        if (!from.isBefore(to)) {
+            throw new ConditionsNotMetException("Range start must be before range end");
+        }
+        getItemById(itemId);
+        return itemAvailability.freeWindows(itemId, from, to);
+    }
+
+    private List<ItemDto> toDetailedDtos(List<Item> items) {
+        if (items.isEmpty()) {
+            return List.of();
+        }
+        List<Long> itemIds = items.stream().map(Item::getId).toList();
+        BookingDates bookingDates = findBookingDates(itemIds);
+        Map<Long, List<CommentDto>> comments = commentRepository.findByItemIdIn(itemIds).stream()
+                .collect(Collectors.groupingBy(comment -> comment.getItem().getId(),
+                        Collectors.mapping(CommentMapper::toDtoComment, Collectors.toList())));
+
+        return items.stream()
+                .map(item -> {
+                    ItemDto dto = ItemMapper.toDto(item);
+                    dto.setLastBooking(bookingDates.last().get(item.getId()));
+                    dto.setNextBooking(bookingDates.next().get(item.getId()));
+                    dto.setComments(comments.getOrDefault(item.getId(), List.of()));
+                    return dto;
+                })
+                .toList();
+    }
+
+    /**
+     * Booking dates and comments of a single item, loaded once for both its representation and its tag.
+     */
+    private ItemDetails findDetails(Item item) {
+        List<Long> itemIds = List.of(item.getId());
+        return new ItemDetails(findBookingDates(itemIds), commentRepository.findByItemIdIn(itemIds));
     }
 
-    private LocalDateTime getNextBookingStart(Long itemId) {
-        LocalDateTime localDateTime = LocalDateTime.now();
-        return bookingRepository.findFirstByItemIdAndStartAfterOrderByStartAsc(itemId, localDateTime)
-                .map(Booking::getStart)
-                .orElse(null);
+    private ItemDto toDetailedDto(Item item, ItemDetails details) {
+        ItemDto dto = ItemMapper.toDto(item);
+        dto.setLastBooking(details.bookingDates().last().get(item.getId()));
+        dto.setNextBooking(details.bookingDates().next().get(item.getId()));
+        dto.setComments(details.comments().stream().map(CommentMapper::toDtoComment).toList());
+        return dto;
+    }
+
+    private BookingDates findBookingDates(List<Long> itemIds) {
+        LocalDateTime cutoff = ItemBookingSummaryService.cutoff(LocalDateTime.now());
+        Map<Long, ItemBookingSummary> summaries = itemBookingSummaryService.findFresh(itemIds, cutoff);
+        List<Long> staleIds = itemIds.stream().filter(id -> !summaries.containsKey(id)).toList();
+        Map<Long, LocalDateTime> lastBookings = new HashMap<>();
+        Map<Long, LocalDateTime> nextBookings = new HashMap<>();
+        summaries.values().forEach(summary -> {
+            lastBookings.put(summary.getItemId(), summary.getLastEnd());
+            nextBookings.put(summary.getItemId(), summary.getNextStart());
+        });
+        if (!staleIds.isEmpty()) {
+            lastBookings.putAll(toDateMap(bookingRepository.findLastBookingEnds(staleIds, cutoff)));
+            nextBookings.putAll(toDateMap(bookingRepository.findNextBookingStarts(staleIds, cutoff)));
+        }
+        return new BookingDates(lastBookings, nextBookings);
+    }
+
+    private Map<Long, LocalDateTime> toDateMap(List<ItemBookingDate> dates) {
+        return dates.stream()
+                .collect(Collectors.toMap(ItemBookingDate::getItemId, ItemBookingDate::getBookingDate));
     }
 
     private User getUserById(Long userId) {
@@ -138,4 +251,23 @@ public class ItemServiceImpl implements ItemService {
         return itemRepository.findById(itemId)
                 .orElseThrow(() -> new NotFoundException("Item with id " + itemId + " not found"));
     }
-}
\ No newline at end of file
+
+    private record BookingDates(Map<Long, LocalDateTime> last, Map<Long, LocalDateTime> next) {
+    }
+
+    private record ItemDetails(BookingDates bookingDates, List<Comment> comments) {
+
+        /**
+         * Tag for the item detail representation: item version, booking dates and the comment thread.
+         */
+        String etag(Item item) {
+            long maxCommentId = comments.stream().mapToLong(Comment::getId).max().orElse(0);
+            long commentVersions = comments.stream()
+                    .mapToLong(comment -> comment.getVersion() + comment.getAuthor().getVersion())
+                    .sum();
+            return ETags.of("item", item.getId(), item.getVersion(),
+                    bookingDates.last().get(item.getId()), bookingDates.next().get(item.getId()),
+                    comments.size(), maxCommentId, commentVersions);
+        }
+    }
+}
@@ -5,6 +5,11 @@ import ru.practicum.shareit.item.model.Item;
 
 import java.util.List;
 
+/**
+ * Storage engine for items: {@link JpaItemStorage} by default, {@link InMemoryItemStorage} under the
+ * {@code inmemory} profile. Like {@link ru.practicum.shareit.user.UserStorage}, the profile is limited to
+ * users and items, because bookings, comments and requests depend on database constraints.
+ */
 public interface ItemStorage {
     Item getItem(Long id);
 
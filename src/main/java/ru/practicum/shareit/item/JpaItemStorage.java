@@ -0,0 +1,80 @@
+package ru.practicum.shareit.item;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.exceptions.NotFoundException;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.search.ItemSearchIndex;
+
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Default {@link ItemStorage}: the items table through {@link ItemRepository}, searched and indexed
+ * through the configured {@link ItemSearchIndex} like the item service does.
+ */
+@Repository
+@Profile("!inmemory")
+@RequiredArgsConstructor
+public class JpaItemStorage implements ItemStorage {
+
+    private final ItemRepository itemRepository;
+    private final ItemSearchIndex itemSearchIndex;
+
+    @Override
+    @Transactional(readOnly = true)
+    public Item getItem(Long id) {
+        return itemRepository.findById(id).orElse(null);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<Item> getUserItem(Long id) {
+        return itemRepository.findByOwner_id(id).stream().sorted(Comparator.comparing(Item::getId)).toList();
+    }
+
+    @Override
+    @Transactional
+    public Item createItem(Item item) {
+        Item saved = itemRepository.save(item);
+        itemSearchIndex.index(saved);
+        return saved;
+    }
+
+    @Override
+    @Transactional
+    public Item updateItem(ItemDto itemDto, Long itemId) {
+        Item item = itemRepository.findById(itemId).orElseThrow(() -> new NotFoundException("Item not found"));
+        if (itemDto.getName() != null) {
+            item.setName(itemDto.getName());
+        }
+        if (itemDto.getDescription() != null) {
+            item.setDescription(itemDto.getDescription());
+        }
+        if (itemDto.getAvailable() != null) {
+            item.setAvailable(itemDto.getAvailable());
+        }
+        Item saved = itemRepository.saveAndFlush(item);
+        itemSearchIndex.index(saved);
+        return saved;
+    }
+
+    @Override
+    @Transactional
+    public void deleteItem(Long id) {
+        if (!itemRepository.existsById(id)) {
+            throw new NotFoundException("Item not found");
+        }
+        itemRepository.deleteById(id);
+        itemSearchIndex.remove(id);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<Item> searchItem(String searchString) {
+        return itemSearchIndex.search(searchString);
+    }
+}
@@ -0,0 +1,92 @@
+package ru.practicum.shareit.item.search;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.practicum.shareit.item.ItemRepository;
+import ru.practicum.shareit.item.model.Item;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Embedded search for H2 and tests, backed by an {@link ItemTermIndex} hydrated from the item table.
+ * Changes are applied once the surrounding transaction commits, so a rollback leaves no phantom entries.
+ */
+@Component
+@ConditionalOnProperty(name = "shareit.search.mode", havingValue = "memory")
+@RequiredArgsConstructor
+@Slf4j
+public class InMemoryItemSearchIndex implements ItemSearchIndex {
+
+    private static final int HYDRATION_PAGE_SIZE = 1000;
+
+    private final ItemRepository itemRepository;
+
+    private final ItemTermIndex termIndex = new ItemTermIndex();
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void hydrate() {
+        Pageable pageable = PageRequest.of(0, HYDRATION_PAGE_SIZE, Sort.by("id"));
+        Page<Item> page;
+        do {
+            page = itemRepository.findAll(pageable);
+            page.forEach(this::index);
+            pageable = page.nextPageable();
+        } while (page.hasNext());
+        log.info("Item search index hydrated with {} items", termIndex.size());
+    }
+
+    @Override
+    public void index(Item item) {
+        Long itemId = item.getId();
+        String name = item.getName();
+        String description = item.getDescription();
+        afterCommit(() -> termIndex.index(itemId, name, description));
+    }
+
+    @Override
+    public void remove(Long itemId) {
+        afterCommit(() -> termIndex.remove(itemId));
+    }
+
+    @Override
+    public List<Item> search(String text) {
+        List<Long> rankedIds = termIndex.search(text);
+        if (rankedIds.isEmpty()) {
+            return List.of();
+        }
+        Map<Long, Item> items = itemRepository.findAllById(rankedIds).stream()
+                .collect(Collectors.toMap(Item::getId, Function.identity()));
+        return rankedIds.stream()
+                .map(items::get)
+                .filter(Objects::nonNull)
+                .filter(Item::isAvailable)
+                .toList();
+    }
+
+    private void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+}
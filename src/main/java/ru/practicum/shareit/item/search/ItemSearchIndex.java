@@ -0,0 +1,14 @@
+package ru.practicum.shareit.item.search;
+
+import ru.practicum.shareit.item.model.Item;
+
+import java.util.List;
+
+public interface ItemSearchIndex {
+
+    void index(Item item);
+
+    void remove(Long itemId);
+
+    List<Item> search(String text);
+}
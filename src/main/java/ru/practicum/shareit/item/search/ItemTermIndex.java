@@ -0,0 +1,154 @@
+package ru.practicum.shareit.item.search;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Thread-safe index answering the search contract of /items/search: the query text must occur,
+ * case-insensitively, as a substring of the item's name or description. Every query token is a substring
+ * of some indexed word of a matching item, so it is a substring of a word that contains all of the
+ * token's trigrams (or the token itself when it is shorter). Postings are kept per gram of up to three
+ * characters; intersecting the postings of the query's grams narrows the candidates before the substring
+ * check, like pg_trgm does on PostgreSQL. Name matches come first, then by id.
+ */
+public class ItemTermIndex {
+
+    private static final int GRAM_LENGTH = 3;
+
+    private final Map<String, Set<Long>> postings = new ConcurrentHashMap<>();
+    private final Map<Long, Document> documents = new ConcurrentHashMap<>();
+
+    public void index(Long itemId, String name, String description) {
+        Set<String> grams = new HashSet<>();
+        ItemSearchTokenizer.tokenize(name).forEach(term -> addGrams(term, grams));
+        ItemSearchTokenizer.tokenize(description).forEach(term -> addGrams(term, grams));
+        Document document = new Document(fold(name), fold(description), Set.copyOf(grams));
+
+        documents.compute(itemId, (id, old) -> {
+            if (old != null) {
+                old.grams().forEach(gram -> unlink(gram, id));
+            }
+            document.grams().forEach(gram -> link(gram, id));
+            return document;
+        });
+    }
+
+    public void remove(Long itemId) {
+        documents.computeIfPresent(itemId, (id, old) -> {
+            old.grams().forEach(gram -> unlink(gram, id));
+            return null;
+        });
+    }
+
+    /**
+     * Returns ids of items whose name or description contains the text, name matches first.
+     */
+    public List<Long> search(String text) {
+        if (text == null || text.isEmpty()) {
+            return List.of();
+        }
+        String needle = fold(text);
+        List<Long> inName = new ArrayList<>();
+        List<Long> inDescription = new ArrayList<>();
+        for (Long id : candidates(text)) {
+            Document document = documents.get(id);
+            if (document == null) {
+                continue;
+            }
+            if (document.name().contains(needle)) {
+                inName.add(id);
+            } else if (document.description().contains(needle)) {
+                inDescription.add(id);
+            }
+        }
+        inName.sort(Comparator.naturalOrder());
+        inDescription.sort(Comparator.naturalOrder());
+        inName.addAll(inDescription);
+        return inName;
+    }
+
+    public int size() {
+        return documents.size();
+    }
+
+    public int vocabularySize() {
+        return postings.size();
+    }
+
+    /**
+     * Items holding every gram of every query token: the smallest posting set filtered by the others.
+     */
+    private Collection<Long> candidates(String text) {
+        List<String> tokens = ItemSearchTokenizer.tokenize(text);
+        if (tokens.isEmpty()) {
+            return documents.keySet();
+        }
+        List<Set<Long>> sets = new ArrayList<>();
+        for (String gram : queryGrams(tokens)) {
+            Set<Long> docs = postings.get(gram);
+            if (docs == null) {
+                return List.of();
+            }
+            sets.add(docs);
+        }
+        sets.sort(Comparator.comparingInt(Set::size));
+        Set<Long> ids = new HashSet<>(sets.get(0));
+        for (int i = 1; i < sets.size() && !ids.isEmpty(); i++) {
+            ids.retainAll(sets.get(i));
+        }
+        return ids;
+    }
+
+    private static Set<String> queryGrams(List<String> tokens) {
+        Set<String> grams = new HashSet<>();
+        for (String token : tokens) {
+            if (token.length() <= GRAM_LENGTH) {
+                grams.add(token);
+            } else {
+                for (int i = 0; i + GRAM_LENGTH <= token.length(); i++) {
+                    grams.add(token.substring(i, i + GRAM_LENGTH));
+                }
+            }
+        }
+        return grams;
+    }
+
+    // Every substring of up to three characters, so tokens shorter than a trigram are looked up directly
+    private static void addGrams(String term, Set<String> grams) {
+        for (int length = 1; length <= GRAM_LENGTH; length++) {
+            for (int i = 0; i + length <= term.length(); i++) {
+                grams.add(term.substring(i, i + length));
+            }
+        }
+    }
+
+    // The vocabulary is the postings key set: a gram goes away with its last document
+    private void link(String gram, Long itemId) {
+        postings.compute(gram, (g, docs) -> {
+            Set<Long> result = docs == null ? ConcurrentHashMap.newKeySet() : docs;
+            result.add(itemId);
+            return result;
+        });
+    }
+
+    private void unlink(String gram, Long itemId) {
+        postings.computeIfPresent(gram, (g, docs) -> {
+            docs.remove(itemId);
+            return docs.isEmpty() ? null : docs;
+        });
+    }
+
+    private static String fold(String text) {
+        return text == null ? "" : text.toUpperCase(Locale.ROOT);
+    }
+
+    private record Document(String name, String description, Set<String> grams) {
+    }
+}
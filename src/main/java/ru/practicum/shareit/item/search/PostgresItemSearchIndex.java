@@ -0,0 +1,38 @@
+package ru.practicum.shareit.item.search;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.item.ItemRepository;
+import ru.practicum.shareit.item.model.Item;
+
+import java.util.List;
+
+/**
+ * Substring search backed by trigram GIN indexes on items, which PostgreSQL keeps in sync by itself.
+ * LIKE wildcards in the query are escaped so the text matches literally, as in the memory mode.
+ */
+@Component
+@ConditionalOnProperty(name = "shareit.search.mode", havingValue = "postgres", matchIfMissing = true)
+@RequiredArgsConstructor
+public class PostgresItemSearchIndex implements ItemSearchIndex {
+
+    private final ItemRepository itemRepository;
+
+    @Override
+    public void index(Item item) {
+    }
+
+    @Override
+    public void remove(Long itemId) {
+    }
+
+    @Override
+    public List<Item> search(String text) {
+        if (text == null || text.isEmpty()) {
+            return List.of();
+        }
+        String escaped = text.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+        return itemRepository.searchSubstring("%" + escaped + "%");
+    }
+}
@@ -0,0 +1,17 @@
+package ru.practicum.shareit.metrics;
+
+import lombok.RequiredArgsConstructor;
+import org.hibernate.Interceptor;
+import org.hibernate.type.Type;
+
+@RequiredArgsConstructor
+public class EntityLoadCountingInterceptor implements Interceptor {
+
+    private final RequestQueryCounter counter;
+
+    @Override
+    public boolean onLoad(Object entity, Object id, Object[] state, String[] propertyNames, Type[] types) {
+        counter.entityLoaded();
+        return false;
+    }
+}
@@ -0,0 +1,16 @@
+package ru.practicum.shareit.metrics;
+
+import lombok.RequiredArgsConstructor;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+@RequiredArgsConstructor
+public class QueryCountingStatementInspector implements StatementInspector {
+
+    private final RequestQueryCounter counter;
+
+    @Override
+    public String inspect(String sql) {
+        counter.statementExecuted(sql);
+        return sql;
+    }
+}
@@ -0,0 +1,84 @@
+package ru.practicum.shareit.metrics;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Counts SQL statements and loaded entities for the request bound to the current thread.
+ * A request that passes a positive statement limit is logged and counted once; only with
+ * fail-on-excess-statements (set under test) does every statement past the limit fail, so N+1
+ * regressions break the build instead of production requests.
+ */
+@Component
+@Slf4j
+public class RequestQueryCounter {
+
+    private final ThreadLocal<Counts> current = new ThreadLocal<>();
+    private final int maxStatements;
+    private final boolean failOnExcess;
+    private final Counter excessRequests;
+
+    public RequestQueryCounter(@Value("${shareit.metrics.max-statements-per-request:0}") int maxStatements,
+                               @Value("${shareit.metrics.fail-on-excess-statements:false}") boolean failOnExcess,
+                               MeterRegistry meterRegistry) {
+        this.maxStatements = maxStatements;
+        this.failOnExcess = failOnExcess;
+        this.excessRequests = Counter.builder("shareit.request.sql.limit.exceeded")
+                .description("Requests that issued more SQL statements than the per-request limit")
+                .register(meterRegistry);
+    }
+
+    public void start(String request) {
+        current.set(new Counts(request));
+    }
+
+    public Counts stop() {
+        Counts counts = current.get();
+        current.remove();
+        return counts;
+    }
+
+    public void statementExecuted(String sql) {
+        Counts counts = current.get();
+        if (counts == null) {
+            return;
+        }
+        counts.statements++;
+        if (maxStatements <= 0 || counts.statements <= maxStatements) {
+            return;
+        }
+        if (failOnExcess) {
+            log.error("Request {} issued more than {} SQL statements, last: {}", counts.request, maxStatements, sql);
+            throw new IllegalStateException("Request " + counts.request + " exceeded the limit of "
+                    + maxStatements + " SQL statements");
+        }
+        if (!counts.limitExceeded) {
+            counts.limitExceeded = true;
+            excessRequests.increment();
+            log.warn("Request {} issued more than {} SQL statements, next: {}", counts.request, maxStatements, sql);
+        }
+    }
+
+    public void entityLoaded() {
+        Counts counts = current.get();
+        if (counts != null) {
+            counts.entities++;
+        }
+    }
+
+    @Getter
+    public static class Counts {
+        private final String request;
+        private int statements;
+        private int entities;
+        private boolean limitExceeded;
+
+        Counts(String request) {
+            this.request = request;
+        }
+    }
+}
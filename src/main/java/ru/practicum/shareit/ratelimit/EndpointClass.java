@@ -0,0 +1,54 @@
+package ru.practicum.shareit.ratelimit;
+
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.http.HttpMethod;
+
+/**
+ * Groups endpoints that cost about the same, so each group gets its own budget per user.
+ */
+public enum EndpointClass {
+    SEARCH(true, true),
+    BOOKING_LISTS(true, true),
+    READS(true, true),
+    WRITES(false, true),
+    BULK(true, false);
+
+    /**
+     * Whether the class is dropped first under load; writes are left to the database bulkhead.
+     */
+    private final boolean sheddable;
+    /**
+     * Whether the class feeds the latency average; bulk imports and exports run for seconds by design.
+     */
+    private final boolean sampled;
+
+    EndpointClass(boolean sheddable, boolean sampled) {
+        this.sheddable = sheddable;
+        this.sampled = sampled;
+    }
+
+    public boolean isSheddable() {
+        return sheddable;
+    }
+
+    public boolean isSampled() {
+        return sampled;
+    }
+
+    public static EndpointClass of(HttpServletRequest request) {
+        String uri = request.getRequestURI();
+        if (uri.endsWith("/bulk") || uri.endsWith("/export")) {
+            return BULK;
+        }
+        if (!HttpMethod.GET.matches(request.getMethod()) && !HttpMethod.HEAD.matches(request.getMethod())) {
+            return WRITES;
+        }
+        if (uri.startsWith("/items/search")) {
+            return SEARCH;
+        }
+        if (uri.equals("/bookings") || uri.startsWith("/bookings/owner")) {
+            return BOOKING_LISTS;
+        }
+        return READS;
+    }
+}
@@ -0,0 +1,52 @@
+package ru.practicum.shareit.ratelimit;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Single-node limiter. Each bucket is an {@link AtomicLong} holding its theoretical arrival time in
+ * {@link System#nanoTime()} units; the hot path is a map lookup and a CAS loop without locks or allocation.
+ */
+@Component
+@ConditionalOnProperty(name = "shareit.ratelimit.store", havingValue = "memory", matchIfMissing = true)
+public class InMemoryRateLimiter implements RateLimiter {
+
+    private final Map<String, AtomicLong> buckets = new ConcurrentHashMap<>();
+
+    @Override
+    public long tryAcquire(String bucket, RateLimitProperties.Limit limit) {
+        AtomicLong arrival = buckets.get(bucket);
+        if (arrival == null) {
+            arrival = buckets.computeIfAbsent(bucket, key -> new AtomicLong(Long.MIN_VALUE));
+        }
+        long interval = (long) (TimeUnit.SECONDS.toNanos(1) / limit.getRefillPerSecond());
+        long tolerance = interval * (limit.getCapacity() - 1L);
+        while (true) {
+            long now = System.nanoTime();
+            long current = arrival.get();
+            long theoretical = Math.max(current, now);
+            long wait = theoretical - now - tolerance;
+            if (wait > 0) {
+                return Math.max(1, TimeUnit.NANOSECONDS.toMillis(wait));
+            }
+            if (arrival.compareAndSet(current, theoretical + interval)) {
+                return 0;
+            }
+        }
+    }
+
+    /**
+     * Drops buckets that have refilled completely; they behave exactly like absent ones.
+     */
+    @Scheduled(fixedDelayString = "${shareit.ratelimit.eviction-interval-ms:60000}")
+    public void evictFull() {
+        long now = System.nanoTime();
+        buckets.values().removeIf(arrival -> arrival.get() - now < 0);
+    }
+}
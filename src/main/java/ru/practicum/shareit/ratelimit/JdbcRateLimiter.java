@@ -0,0 +1,64 @@
+package ru.practicum.shareit.ratelimit;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Shares buckets between application nodes through the rate_limit_buckets table. Arrival times are epoch
+ * microseconds; each decision is a single conditional UPDATE, plus an INSERT the first time a bucket is used.
+ */
+@Component
+@ConditionalOnProperty(name = "shareit.ratelimit.store", havingValue = "jdbc")
+@RequiredArgsConstructor
+public class JdbcRateLimiter implements RateLimiter {
+
+    private static final String TAKE = "UPDATE rate_limit_buckets SET arrival = GREATEST(arrival, ?) + ? " +
+            "WHERE bucket_key = ? AND GREATEST(arrival, ?) - ? <= ?";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Override
+    public long tryAcquire(String bucket, RateLimitProperties.Limit limit) {
+        long interval = (long) (TimeUnit.SECONDS.toMicros(1) / limit.getRefillPerSecond());
+        long tolerance = interval * (limit.getCapacity() - 1L);
+        long now = nowMicros();
+        if (jdbcTemplate.update(TAKE, now, interval, bucket, now, now, tolerance) == 1) {
+            return 0;
+        }
+        Long arrival = jdbcTemplate.query("SELECT arrival FROM rate_limit_buckets WHERE bucket_key = ?",
+                (rs, rowNum) -> rs.getLong(1), bucket).stream().findFirst().orElse(null);
+        if (arrival == null) {
+            try {
+                jdbcTemplate.update("INSERT INTO rate_limit_buckets (bucket_key, arrival) VALUES (?, ?)",
+                        bucket, now + interval);
+                return 0;
+            } catch (DuplicateKeyException e) {
+                return jdbcTemplate.update(TAKE, now, interval, bucket, now, now, tolerance) == 1 ? 0 : 1;
+            }
+        }
+        long wait = Math.max(arrival, now) - now - tolerance;
+        return Math.max(1, TimeUnit.MICROSECONDS.toMillis(wait));
+    }
+
+    @Override
+    public boolean usesDatabase() {
+        return true;
+    }
+
+    @Scheduled(fixedDelayString = "${shareit.ratelimit.eviction-interval-ms:60000}")
+    public void evictFull() {
+        jdbcTemplate.update("DELETE FROM rate_limit_buckets WHERE arrival < ?", nowMicros());
+    }
+
+    private static long nowMicros() {
+        return ChronoUnit.MICROS.between(Instant.EPOCH, Instant.now());
+    }
+}
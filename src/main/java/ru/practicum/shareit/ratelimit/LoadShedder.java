@@ -0,0 +1,78 @@
+package ru.practicum.shareit.ratelimit;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Decides whether the service is overloaded from two signals: an exponentially weighted moving average of
+ * request latency, fed by every admitted request except bulk transfers, and the number of threads waiting for a Hikari
+ * connection, sampled from the pool gauges. The request path only reads volatile state.
+ */
+@Component
+public class LoadShedder {
+
+    private final RateLimitProperties.Shedding settings;
+    private final MeterRegistry meterRegistry;
+    private final AtomicLong latencyEwmaBits = new AtomicLong(Double.doubleToLongBits(0));
+    private final LongAdder completed = new LongAdder();
+    private volatile double pendingConnections;
+
+    public LoadShedder(RateLimitProperties properties, MeterRegistry meterRegistry) {
+        this.settings = properties.getShedding();
+        this.meterRegistry = meterRegistry;
+        Gauge.builder("shareit.loadshed.latency.ewma", this, LoadShedder::latencyEwmaMillis)
+                .baseUnit("milliseconds")
+                .register(meterRegistry);
+        Gauge.builder("shareit.loadshed.pending.connections", this, shedder -> shedder.pendingConnections)
+                .register(meterRegistry);
+    }
+
+    public boolean shouldShed(EndpointClass endpointClass) {
+        if (!settings.isEnabled() || !endpointClass.isSheddable()) {
+            return false;
+        }
+        return latencyEwmaMillis() > settings.getLatencyThresholdMs()
+                || pendingConnections > settings.getPendingConnectionsThreshold();
+    }
+
+    public void record(EndpointClass endpointClass, long durationNanos) {
+        if (!endpointClass.isSampled()) {
+            return;
+        }
+        double sample = durationNanos / (double) TimeUnit.MILLISECONDS.toNanos(1);
+        blend(sample);
+        completed.increment();
+    }
+
+    /**
+     * Refreshes the pool signal, and lets the average decay when nothing completed since the last sample,
+     * so shedding every sheddable request cannot keep the average high forever.
+     */
+    @Scheduled(fixedDelayString = "${shareit.ratelimit.shedding.sample-interval-ms:250}")
+    public void sample() {
+        pendingConnections = meterRegistry.find("hikaricp.connections.pending").gauges().stream()
+                .mapToDouble(Gauge::value)
+                .filter(value -> !Double.isNaN(value))
+                .sum();
+        if (completed.sumThenReset() == 0) {
+            blend(0);
+        }
+    }
+
+    private double latencyEwmaMillis() {
+        return Double.longBitsToDouble(latencyEwmaBits.get());
+    }
+
+    private void blend(double sample) {
+        latencyEwmaBits.getAndUpdate(bits -> {
+            double average = Double.longBitsToDouble(bits);
+            return Double.doubleToLongBits(average + settings.getSmoothing() * (sample - average));
+        });
+    }
+}
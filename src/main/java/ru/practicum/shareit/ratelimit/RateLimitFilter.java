@@ -0,0 +1,150 @@
+package ru.practicum.shareit.ratelimit;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.Ordered;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import ru.practicum.shareit.bulkhead.DatabaseBulkheadFilter;
+import ru.practicum.shareit.exceptions.ErrorResponse;
+import ru.practicum.shareit.user.UserRepository;
+
+import java.io.IOException;
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Rejects requests early: 503 while the {@link LoadShedder} reports overload, 429 when the caller's bucket
+ * for the endpoint class is empty. With the in-memory store it runs before the bulkhead; a limiter that
+ * keeps its buckets in the database runs right after it, so its round trips hold a database permit like
+ * any other query.
+ * <p>
+ * X-Sharer-User-Id is not authenticated, so a caller gets its own bucket only once the header is known to
+ * name an existing user; until then it is keyed by remote address. The existence check runs only after the
+ * address bucket grants a token, so invented ids neither create buckets nor cost more lookups than the
+ * address is allowed requests.
+ */
+@Component
+@Slf4j
+public class RateLimitFilter extends OncePerRequestFilter implements Ordered {
+
+    private static final String USER_HEADER = "X-Sharer-User-Id";
+
+    private final RateLimitProperties properties;
+    private final RateLimiter rateLimiter;
+    private final LoadShedder loadShedder;
+    private final ObjectMapper objectMapper;
+    private final UserRepository userRepository;
+    /**
+     * Verified user ids and the {@link System#nanoTime()} of their check.
+     */
+    private final Map<Long, Long> knownUsers = new ConcurrentHashMap<>();
+    private final Map<EndpointClass, Counter> throttled = new EnumMap<>(EndpointClass.class);
+    private final Map<EndpointClass, Counter> shed = new EnumMap<>(EndpointClass.class);
+
+    public RateLimitFilter(RateLimitProperties properties,
+                           RateLimiter rateLimiter,
+                           LoadShedder loadShedder,
+                           ObjectMapper objectMapper,
+                           UserRepository userRepository,
+                           MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.rateLimiter = rateLimiter;
+        this.loadShedder = loadShedder;
+        this.objectMapper = objectMapper;
+        this.userRepository = userRepository;
+        for (EndpointClass endpointClass : EndpointClass.values()) {
+            String tag = endpointClass.name().toLowerCase(Locale.ROOT);
+            throttled.put(endpointClass, meterRegistry.counter("shareit.ratelimit.rejected", "endpoint", tag));
+            shed.put(endpointClass, meterRegistry.counter("shareit.loadshed.rejected", "endpoint", tag));
+        }
+    }
+
+    @Override
+    public int getOrder() {
+        return rateLimiter.usesDatabase() ? DatabaseBulkheadFilter.ORDER + 1 : Ordered.HIGHEST_PRECEDENCE + 100;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !properties.isEnabled() || request.getRequestURI().startsWith("/actuator");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        EndpointClass endpointClass = EndpointClass.of(request);
+
+        if (loadShedder.shouldShed(endpointClass)) {
+            shed.get(endpointClass).increment();
+            reject(response, HttpStatus.SERVICE_UNAVAILABLE, 1,
+                    new ErrorResponse("Error service unavailable", "Service is overloaded, retry later"));
+            return;
+        }
+
+        RateLimitProperties.Limit limit = properties.getLimits().get(endpointClass);
+        if (limit != null) {
+            Long userId = userId(request);
+            boolean known = userId != null && knownUsers.containsKey(userId);
+            String caller = known ? "user:" + userId : "addr:" + request.getRemoteAddr();
+            long waitMillis = rateLimiter.tryAcquire(endpointClass.name() + ":" + caller, limit);
+            if (waitMillis > 0) {
+                throttled.get(endpointClass).increment();
+                log.debug("Throttling {} {} for {}", request.getMethod(), request.getRequestURI(), caller);
+                reject(response, HttpStatus.TOO_MANY_REQUESTS, (waitMillis + 999) / 1000,
+                        new ErrorResponse("Error too many requests", "Rate limit exceeded, retry later"));
+                return;
+            }
+            if (userId != null && !known && userRepository.existsById(userId)) {
+                knownUsers.put(userId, System.nanoTime());
+            }
+        }
+
+        long started = System.nanoTime();
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            loadShedder.record(endpointClass, System.nanoTime() - started);
+        }
+    }
+
+    /**
+     * Forgets verified ids after the configured time, so deleted users fall back to their address bucket.
+     */
+    @Scheduled(fixedDelayString = "${shareit.ratelimit.eviction-interval-ms:60000}")
+    public void evictKnownUsers() {
+        long expiredBefore = System.nanoTime() - properties.getKnownUserTtl().toNanos();
+        knownUsers.values().removeIf(checked -> checked - expiredBefore < 0);
+    }
+
+    private static Long userId(HttpServletRequest request) {
+        String header = request.getHeader(USER_HEADER);
+        if (header == null) {
+            return null;
+        }
+        try {
+            return Long.valueOf(header.trim());
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    private void reject(HttpServletResponse response, HttpStatus status, long retryAfterSeconds, ErrorResponse body)
+            throws IOException {
+        response.setStatus(status.value());
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.setHeader("Retry-After", String.valueOf(retryAfterSeconds));
+        objectMapper.writeValue(response.getOutputStream(), body);
+    }
+}
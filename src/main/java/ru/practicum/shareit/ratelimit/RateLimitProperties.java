@@ -0,0 +1,62 @@
+package ru.practicum.shareit.ratelimit;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+
+@Data
+@ConfigurationProperties("shareit.ratelimit")
+public class RateLimitProperties {
+
+    private boolean enabled;
+    /**
+     * How long a caller id stays verified as an existing user before it is looked up again.
+     */
+    private Duration knownUserTtl = Duration.ofMinutes(10);
+    private Map<EndpointClass, Limit> limits = defaultLimits();
+    private Shedding shedding = new Shedding();
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Limit {
+        /**
+         * Requests a user may burst before being throttled.
+         */
+        private int capacity;
+        private double refillPerSecond;
+    }
+
+    @Data
+    public static class Shedding {
+        private boolean enabled;
+        /**
+         * Smoothed request latency above which sheddable requests are rejected with 503.
+         */
+        private long latencyThresholdMs = 500;
+        /**
+         * Threads waiting for a pooled connection above which sheddable requests are rejected with 503.
+         */
+        private int pendingConnectionsThreshold = 5;
+        /**
+         * Weight of the newest sample in the latency moving average.
+         */
+        private double smoothing = 0.1;
+        private long sampleIntervalMs = 250;
+    }
+
+    private static Map<EndpointClass, Limit> defaultLimits() {
+        Map<EndpointClass, Limit> limits = new EnumMap<>(EndpointClass.class);
+        limits.put(EndpointClass.SEARCH, new Limit(20, 5));
+        limits.put(EndpointClass.BOOKING_LISTS, new Limit(20, 5));
+        limits.put(EndpointClass.READS, new Limit(100, 50));
+        limits.put(EndpointClass.WRITES, new Limit(30, 10));
+        limits.put(EndpointClass.BULK, new Limit(5, 0.2));
+        return limits;
+    }
+}
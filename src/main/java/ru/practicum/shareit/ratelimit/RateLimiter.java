@@ -0,0 +1,20 @@
+package ru.practicum.shareit.ratelimit;
+
+/**
+ * Token buckets implemented as GCRA: a bucket is the single timestamp at which it would be full again,
+ * so taking a token is one compare-and-set or one conditional UPDATE.
+ */
+public interface RateLimiter {
+
+    /**
+     * Takes a token from the bucket; returns 0 when granted, otherwise the milliseconds until one is available.
+     */
+    long tryAcquire(String bucket, RateLimitProperties.Limit limit);
+
+    /**
+     * Whether taking a token is database work, which must then run inside the database bulkhead.
+     */
+    default boolean usesDatabase() {
+        return false;
+    }
+}
@@ -1,14 +1,28 @@
 package ru.practicum.shareit.request;
 
+import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.request.dto.ItemRequestDto;
+import ru.practicum.shareit.user.User;
+
+import java.time.LocalDateTime;
+import java.util.List;
 
 public class ItemRequestMapper {
-    public static ItemRequestDto toDto(ItemRequest itemRequest) {
+    public static ItemRequestDto toDto(ItemRequest itemRequest, List<ItemDto> items) {
         return ItemRequestDto
                 .builder()
+                .id(itemRequest.getId())
                 .description(itemRequest.getDescription())
-                .requester(itemRequest.getRequester())
                 .created(itemRequest.getCreated())
+                .items(items)
+                .build();
+    }
+
+    public static ItemRequest toItemRequest(ItemRequestDto itemRequestDto, User requester, LocalDateTime created) {
+        return ItemRequest.builder()
+                .description(itemRequestDto.getDescription())
+                .requester(requester)
+                .created(created)
                 .build();
     }
 }
@@ -0,0 +1,14 @@
+package ru.practicum.shareit.request;
+
+import lombok.Value;
+
+/**
+ * Published when a newly created item looks like an answer to someone's open request.
+ */
+@Value
+public class ItemRequestMatch {
+    Long requestId;
+    Long requesterId;
+    Long itemId;
+    Long ownerId;
+}
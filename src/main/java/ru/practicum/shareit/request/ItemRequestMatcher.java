@@ -0,0 +1,114 @@
+package ru.practicum.shareit.request;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.search.ItemSearchTokenizer;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Keyword matching of new items against open requests, backed by the request_terms table. A request's
+ * terms are written with it and deleted by the transaction that links an item to it, so every node
+ * matches against the same set of open requests. A new item only reads the rows of its own terms, so
+ * matching cost depends on the item text and the requests sharing its words, not on how many requests
+ * are open.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class ItemRequestMatcher {
+
+    private static final int MIN_TERM_LENGTH = 3;
+    private static final int MAX_TERM_LENGTH = 255;
+
+    private static final String INSERT_TERM = "INSERT INTO request_terms (term, request_id) " +
+            "VALUES (:term, :requestId)";
+    private static final String DELETE_TERMS = "DELETE FROM request_terms WHERE request_id = :requestId";
+    private static final String MATCHING_REQUESTS = "SELECT t.request_id, r.requestor_id " +
+            "FROM request_terms t JOIN request r ON r.id = t.request_id " +
+            "WHERE t.term IN (:terms) AND r.requestor_id <> :ownerId " +
+            "GROUP BY t.request_id, r.requestor_id " +
+            "HAVING COUNT(*) >= LEAST(:minTerms, " +
+            "(SELECT COUNT(*) FROM request_terms a WHERE a.request_id = t.request_id))";
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final ApplicationEventPublisher applicationEventPublisher;
+
+    @Value("${shareit.requests.match.min-terms:2}")
+    private int minTerms;
+
+    /**
+     * Records the terms of a new request in the caller's transaction.
+     */
+    public void open(ItemRequest request) {
+        MapSqlParameterSource[] rows = terms(request.getDescription()).stream()
+                .map(term -> new MapSqlParameterSource()
+                        .addValue("term", term)
+                        .addValue("requestId", request.getId()))
+                .toArray(MapSqlParameterSource[]::new);
+        jdbcTemplate.batchUpdate(INSERT_TERM, rows);
+    }
+
+    /**
+     * Drops a request from matching in the caller's transaction, once an item answering it is created.
+     */
+    public void close(Long requestId) {
+        jdbcTemplate.update(DELETE_TERMS, new MapSqlParameterSource("requestId", requestId));
+    }
+
+    /**
+     * Publishes an {@link ItemRequestMatch} after commit for every open request of another user that shares
+     * at least {@code min-terms} keywords with the item (or all of them, for shorter requests).
+     */
+    public void matchAfterCommit(Item item) {
+        Long itemId = item.getId();
+        Long ownerId = item.getOwner().getId();
+        Set<String> itemTerms = terms(item.getName(), item.getDescription());
+        if (itemTerms.isEmpty()) {
+            return;
+        }
+        afterCommit(() -> match(itemId, ownerId, itemTerms));
+    }
+
+    private void match(Long itemId, Long ownerId, Set<String> itemTerms) {
+        MapSqlParameterSource parameters = new MapSqlParameterSource()
+                .addValue("terms", itemTerms)
+                .addValue("ownerId", ownerId)
+                .addValue("minTerms", minTerms);
+        List<ItemRequestMatch> matches = jdbcTemplate.query(MATCHING_REQUESTS, parameters,
+                (rs, rowNum) -> new ItemRequestMatch(rs.getLong(1), rs.getLong(2), itemId, ownerId));
+        matches.forEach(applicationEventPublisher::publishEvent);
+    }
+
+    static Set<String> terms(String... texts) {
+        return Stream.of(texts)
+                .flatMap(text -> ItemSearchTokenizer.tokenize(text).stream())
+                .filter(term -> term.length() >= MIN_TERM_LENGTH && term.length() <= MAX_TERM_LENGTH)
+                .collect(Collectors.toCollection(HashSet::new));
+    }
+
+    private void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+}
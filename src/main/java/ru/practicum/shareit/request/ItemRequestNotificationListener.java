@@ -0,0 +1,16 @@
+package ru.practicum.shareit.request;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+@Component
+@Slf4j
+public class ItemRequestNotificationListener {
+
+    @EventListener
+    public void onMatch(ItemRequestMatch match) {
+        log.info("Notify requester {}: item {} of user {} may answer request {}",
+                match.getRequesterId(), match.getItemId(), match.getOwnerId(), match.getRequestId());
+    }
+}
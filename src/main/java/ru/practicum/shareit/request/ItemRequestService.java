@@ -0,0 +1,15 @@
+package ru.practicum.shareit.request;
+
+import ru.practicum.shareit.request.dto.ItemRequestDto;
+
+import java.util.List;
+
+public interface ItemRequestService {
+    ItemRequestDto createRequest(ItemRequestDto itemRequestDto, Long userId);
+
+    List<ItemRequestDto> getUserRequests(Long userId);
+
+    List<ItemRequestDto> getOtherUsersRequests(Long userId, int from, int size);
+
+    ItemRequestDto getRequest(Long userId, Long requestId);
+}
@@ -0,0 +1,89 @@
+package ru.practicum.shareit.request;
+
+import lombok.AllArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.exceptions.NotFoundException;
+import ru.practicum.shareit.item.ItemMapper;
+import ru.practicum.shareit.item.ItemRepository;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.pagination.OffsetPageRequest;
+import ru.practicum.shareit.request.dto.ItemRequestDto;
+import ru.practicum.shareit.user.User;
+import ru.practicum.shareit.user.UserRepository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+@Service
+@AllArgsConstructor
+@Slf4j
+public class ItemRequestServiceImpl implements ItemRequestService {
+
+    private static final Sort NEWEST_FIRST = Sort.by(Sort.Order.desc("created"), Sort.Order.desc("id"));
+
+    private final ItemRequestRepository itemRequestRepository;
+    private final ItemRepository itemRepository;
+    private final UserRepository userRepository;
+    private final ItemRequestMatcher itemRequestMatcher;
+
+    @Override
+    @Transactional
+    public ItemRequestDto createRequest(ItemRequestDto itemRequestDto, Long userId) {
+        log.info("Create item request: userId={}, {}", userId, itemRequestDto);
+        User requester = getUserById(userId);
+        ItemRequest request = itemRequestRepository.save(
+                ItemRequestMapper.toItemRequest(itemRequestDto, requester, LocalDateTime.now()));
+        itemRequestMatcher.open(request);
+        return ItemRequestMapper.toDto(request, List.of());
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<ItemRequestDto> getUserRequests(Long userId) {
+        getUserById(userId);
+        return withItems(itemRequestRepository.findByRequesterIdOrderByCreatedDescIdDesc(userId));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<ItemRequestDto> getOtherUsersRequests(Long userId, int from, int size) {
+        getUserById(userId);
+        return withItems(itemRequestRepository.findByRequesterIdNot(userId,
+                OffsetPageRequest.of(from, size, NEWEST_FIRST)));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public ItemRequestDto getRequest(Long userId, Long requestId) {
+        getUserById(userId);
+        ItemRequest request = itemRequestRepository.findById(requestId)
+                .orElseThrow(() -> new NotFoundException("Request with id " + requestId + " not found"));
+        return withItems(List.of(request)).get(0);
+    }
+
+    /**
+     * Attaches answering items to a page of requests with a single query for the whole page.
+     */
+    private List<ItemRequestDto> withItems(List<ItemRequest> requests) {
+        if (requests.isEmpty()) {
+            return List.of();
+        }
+        List<Long> requestIds = requests.stream().map(ItemRequest::getId).toList();
+        Map<Long, List<ItemDto>> items = itemRepository.findByRequest_IdInOrderById(requestIds).stream()
+                .map(ItemMapper::toDto)
+                .collect(Collectors.groupingBy(ItemDto::getRequest));
+        return requests.stream()
+                .map(request -> ItemRequestMapper.toDto(request, items.getOrDefault(request.getId(), List.of())))
+                .toList();
+    }
+
+    private User getUserById(Long userId) {
+        return userRepository.findById(userId)
+                .orElseThrow(() -> new NotFoundException("User with id " + userId + " not found"));
+    }
+}
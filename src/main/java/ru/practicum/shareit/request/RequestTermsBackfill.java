@@ -0,0 +1,66 @@
+package ru.practicum.shareit.request;
+
+import lombok.extern.slf4j.Slf4j;
+import org.flywaydb.core.api.MigrationVersion;
+import org.flywaydb.core.api.migration.Context;
+import org.flywaydb.core.api.migration.JavaMigration;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.SingleConnectionDataSource;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Fills request_terms for the requests that were open before the table existed. Terms come from the
+ * application tokenizer, so this runs as Flyway migration 21.1 in Java, paging the requests by id.
+ */
+@Component
+@Slf4j
+public class RequestTermsBackfill implements JavaMigration {
+
+    private static final int BATCH_SIZE = 1000;
+    private static final String OPEN_REQUESTS = "SELECT r.id, r.description FROM request r WHERE r.id > ? " +
+            "AND NOT EXISTS (SELECT 1 FROM items i WHERE i.request_id = r.id) ORDER BY r.id LIMIT ?";
+
+    @Override
+    public MigrationVersion getVersion() {
+        return MigrationVersion.fromVersion("21.1");
+    }
+
+    @Override
+    public String getDescription() {
+        return "request terms backfill";
+    }
+
+    @Override
+    public Integer getChecksum() {
+        return null;
+    }
+
+    @Override
+    public boolean canExecuteInTransaction() {
+        return true;
+    }
+
+    @Override
+    public void migrate(Context context) {
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(new SingleConnectionDataSource(context.getConnection(), true));
+        long afterId = 0;
+        long requests = 0;
+        List<Object[]> batch;
+        do {
+            batch = jdbcTemplate.query(OPEN_REQUESTS,
+                    (rs, rowNum) -> new Object[]{rs.getLong(1), rs.getString(2)}, afterId, BATCH_SIZE);
+            List<Object[]> terms = new ArrayList<>();
+            for (Object[] request : batch) {
+                ItemRequestMatcher.terms((String) request[1])
+                        .forEach(term -> terms.add(new Object[]{term, request[0]}));
+                afterId = (Long) request[0];
+            }
+            jdbcTemplate.batchUpdate("INSERT INTO request_terms (term, request_id) VALUES (?, ?)", terms);
+            requests += batch.size();
+        } while (batch.size() == BATCH_SIZE);
+        log.info("Backfilled terms of {} open item requests", requests);
+    }
+}
@@ -1,85 +1,103 @@
 package ru.practicum.shareit.user;
 
-import lombok.AllArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.annotation.Profile;
 import org.springframework.stereotype.Repository;
 import ru.practicum.shareit.exceptions.DuplicateDataException;
 import ru.practicum.shareit.exceptions.NotFoundException;
 
+import java.util.Comparator;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
 
+/**
+ * Concurrent user store with an atomic id sequence and an email index. Email ownership is claimed
+ * in the index before a user is written, so two concurrent writers can never end up with the same email.
+ * Selected as the {@link UserStorage} by the {@code inmemory} profile instead of {@link JpaUserStorage}.
+ */
 @Repository
+@Profile("inmemory")
 @Slf4j
-@AllArgsConstructor
 public class InMemoryUserStorage implements UserStorage {
 
-    private final Map<Long, User> users;
+    private final AtomicLong ids = new AtomicLong();
+    private final Map<Long, User> users = new ConcurrentHashMap<>();
+    private final Map<String, Long> emailIndex = new ConcurrentHashMap<>();
 
     @Override
     public List<User> getAllUsers() {
-        return users.values().stream().toList();
+        return users.values().stream()
+                .sorted(Comparator.comparing(User::getId))
+                .map(InMemoryUserStorage::copy)
+                .toList();
     }
 
     @Override
     public Optional<User> getUser(Long id) {
-        return Optional.ofNullable(users.get(id));
-
+        return Optional.ofNullable(users.get(id)).map(InMemoryUserStorage::copy);
     }
 
     @Override
     public User createUser(User user) {
-        for (User userNew : users.values()) {
-            if (user.getEmail().equals(userNew.getEmail())) {
-                throw new DuplicateDataException("This email is already in use");
-            }
+        Long id = getNextId();
+        if (emailIndex.putIfAbsent(user.getEmail(), id) != null) {
+            throw new DuplicateDataException("This email is already in use");
         }
-        user.setId(getNextId());
-        users.put(user.getId(), user);
-        return user;
+        User stored = copy(user);
+        stored.setId(id);
+        users.put(id, stored);
+        user.setId(id);
+        return copy(stored);
     }
 
     @Override
     public User updateUser(User user, Long id) {
-
-        if (!users.containsKey(id)) {
-            throw new NotFoundException("User not found");
-        }
-        User oldUser = users.get(id);
-
-        if (user.getEmail() != null && !user.getEmail().equals(oldUser.getEmail())) {
-            for (User existingUser : users.values()) {
-                if (user.getEmail().equals(existingUser.getEmail())) {
+        User updated = users.computeIfPresent(id, (userId, oldUser) -> {
+            User newUser = copy(oldUser);
+            if (user.getEmail() != null && !user.getEmail().equals(oldUser.getEmail())) {
+                Long holder = emailIndex.putIfAbsent(user.getEmail(), userId);
+                if (holder != null && !holder.equals(userId)) {
                     throw new DuplicateDataException("This email is already in use");
                 }
+                emailIndex.remove(oldUser.getEmail(), userId);
+                newUser.setEmail(user.getEmail());
             }
+            if (user.getName() != null) {
+                newUser.setName(user.getName());
+            }
+            return newUser;
+        });
+        if (updated == null) {
+            throw new NotFoundException("User not found");
         }
-        if (user.getName() != null) {
-            oldUser.setName(user.getName());
-        }
-        if (user.getEmail() != null) {
-            oldUser.setEmail(user.getEmail());
-        }
-        return oldUser;
+        return copy(updated);
     }
 
     @Override
     public void deleteUser(Long id) {
-        if (!users.containsKey(id)) {
+        User user = users.remove(id);
+        if (user == null) {
             throw new NotFoundException("User with id = " + id + " not found");
         }
+        emailIndex.remove(user.getEmail(), id);
+    }
 
-        users.remove(id);
+    /**
+     * Reserves and returns the next id of the sequence.
+     */
+    private Long getNextId() {
+        return ids.incrementAndGet();
     }
 
-    @Override
-    public Long getNextId() {
-        long currentMaxId = users.keySet()
-                .stream()
-                .mapToLong(id -> id)
-                .max()
-                .orElse(0);
-        return ++currentMaxId;
+    private static User copy(User user) {
+        return User.builder()
+                .id(user.getId())
+                .name(user.getName())
+                .email(user.getEmail())
+                .version(user.getVersion())
+                .build();
     }
 }
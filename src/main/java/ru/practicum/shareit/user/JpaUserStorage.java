@@ -0,0 +1,71 @@
+package ru.practicum.shareit.user;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.exceptions.DuplicateDataException;
+import ru.practicum.shareit.exceptions.NotFoundException;
+
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Default {@link UserStorage}: the users table through {@link UserRepository}, with the same email
+ * checks the user service makes.
+ */
+@Repository
+@Profile("!inmemory")
+@RequiredArgsConstructor
+public class JpaUserStorage implements UserStorage {
+
+    private final UserRepository userRepository;
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<User> getAllUsers() {
+        return userRepository.findAll(Sort.by("id"));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Optional<User> getUser(Long id) {
+        return userRepository.findById(id);
+    }
+
+    @Override
+    @Transactional
+    public User createUser(User user) {
+        if (userRepository.existsByEmail(user.getEmail())) {
+            throw new DuplicateDataException("Email already exists");
+        }
+        return userRepository.save(user);
+    }
+
+    @Override
+    @Transactional
+    public User updateUser(User user, Long id) {
+        User stored = userRepository.findById(id)
+                .orElseThrow(() -> new NotFoundException("User with id = " + id + " not found"));
+        if (user.getEmail() != null && !user.getEmail().equals(stored.getEmail())) {
+            if (userRepository.existsByEmail(user.getEmail())) {
+                throw new DuplicateDataException("Email already exists");
+            }
+            stored.setEmail(user.getEmail());
+        }
+        if (user.getName() != null) {
+            stored.setName(user.getName());
+        }
+        return userRepository.saveAndFlush(stored);
+    }
+
+    @Override
+    @Transactional
+    public void deleteUser(Long id) {
+        if (!userRepository.existsById(id)) {
+            throw new NotFoundException("User with id = " + id + " not found");
+        }
+        userRepository.deleteById(id);
+    }
+}
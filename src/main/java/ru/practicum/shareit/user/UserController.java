@@ -1,8 +1,16 @@
 package ru.practicum.shareit.user;
 
 import jakarta.validation.Valid;
+import jakarta.validation.constraints.Positive;
+import jakarta.validation.constraints.PositiveOrZero;
 import lombok.AllArgsConstructor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import ru.practicum.shareit.etag.Tagged;
 import ru.practicum.shareit.user.dto.UserDto;
 
 import java.util.List;
@@ -12,16 +20,45 @@ import java.util.List;
 @AllArgsConstructor
 public class UserController {
 
+    public static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+
     private UserService userService;
 
     @GetMapping("/{id}")
-    public UserDto getUser(@PathVariable Long id) {
-        return userService.getUser(id);
+    public UserDto getUser(@PathVariable Long id, WebRequest request) {
+        Tagged<UserDto> user = userService.getUser(id, request.getHeader(HttpHeaders.IF_NONE_MATCH));
+        if (request.checkNotModified(user.etag())) {
+            return null;
+        }
+        return user.body();
     }
 
+    /**
+     * Without {@code size} all users are returned, as before paging existed, and there is no next page.
+     */
     @GetMapping
-    public List<UserDto> getAllUsers() {
-        return userService.getAllUsers();
+    public ResponseEntity<List<UserDto>> getAllUsers(@RequestParam(defaultValue = "0") @PositiveOrZero int from,
+                                                     @RequestParam(required = false) @Positive Integer size,
+                                                     @RequestParam(required = false) Long cursor,
+                                                     WebRequest request) {
+        Tagged<List<UserDto>> page = userService.getAllUsers(from, size, cursor);
+        if (request.checkNotModified(page.etag())) {
+            return null;
+        }
+        List<UserDto> users = page.body();
+        if (size == null || users.size() < size) {
+            return ResponseEntity.ok(users);
+        }
+        return ResponseEntity.ok()
+                .header(NEXT_CURSOR_HEADER, String.valueOf(users.get(users.size() - 1).getId()))
+                .body(users);
+    }
+
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportUsers() {
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(userService::exportUsers);
     }
 
     @PostMapping
@@ -30,8 +67,12 @@ public class UserController {
     }
 
     @PatchMapping("/{id}")
-    public UserDto updateUser(@RequestBody UserDto user, @PathVariable Long id) {
-        return userService.updateUser(user, id);
+    public ResponseEntity<UserDto> updateUser(@RequestBody UserDto user,
+                                              @PathVariable Long id,
+                                              @RequestHeader(value = HttpHeaders.IF_MATCH, required = false)
+                                              String ifMatch) {
+        Tagged<UserDto> updated = userService.updateUser(user, id, ifMatch);
+        return ResponseEntity.ok().eTag(updated.etag()).body(updated.body());
     }
 
     @DeleteMapping("/{id}")
@@ -14,7 +14,6 @@ public class UserMapper {
 
     public static User toUser(UserDto userDto) {
         return User.builder()
-                .id(userDto.getId())
                 .name(userDto.getName())
                 .email(userDto.getEmail())
                 .build();
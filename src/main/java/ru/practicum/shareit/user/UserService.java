@@ -1,17 +1,21 @@
 package ru.practicum.shareit.user;
 
+import ru.practicum.shareit.etag.Tagged;
 import ru.practicum.shareit.user.dto.UserDto;
 
+import java.io.OutputStream;
 import java.util.List;
 
 public interface UserService {
-    List<UserDto> getAllUsers();
+    Tagged<List<UserDto>> getAllUsers(int from, Integer size, Long afterId);
 
-    UserDto getUser(Long id);
+    void exportUsers(OutputStream out);
+
+    Tagged<UserDto> getUser(Long id, String ifNoneMatch);
 
     UserDto createUser(UserDto userDto);
 
-    UserDto updateUser(UserDto userDto, Long id);
+    Tagged<UserDto> updateUser(UserDto userDto, Long id, String ifMatch);
 
     void deleteUser(Long id);
 }
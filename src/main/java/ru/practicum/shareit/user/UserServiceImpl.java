@@ -1,35 +1,98 @@
 package ru.practicum.shareit.user;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
 import lombok.AllArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.etag.ETags;
+import ru.practicum.shareit.etag.Tagged;
 import ru.practicum.shareit.exceptions.DuplicateDataException;
 import ru.practicum.shareit.exceptions.NotFoundException;
+import ru.practicum.shareit.exceptions.PreconditionFailedException;
+import ru.practicum.shareit.pagination.OffsetPageRequest;
 import ru.practicum.shareit.user.dto.UserDto;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
 import java.util.List;
+import java.util.stream.Stream;
 
 @Service
 @AllArgsConstructor
 @Slf4j
 public class UserServiceImpl implements UserService {
+    private static final int EXPORT_FLUSH_EVERY = 500;
+
     private final UserRepository userRepository;
+    private final EntityManager entityManager;
+    private final ObjectMapper objectMapper;
 
+    /**
+     * Without {@code size} the list is unbounded. The tag is derived from the ids and versions of the
+     * returned rows only, so it costs no extra query and changes exactly when this page changes.
+     */
     @Override
-    public List<UserDto> getAllUsers() {
-        log.info("Get all users");
-        List<User> users = userRepository.findAll();
-        return users.stream().map(UserMapper::toDto).toList();
+    @Transactional(readOnly = true)
+    public Tagged<List<UserDto>> getAllUsers(int from, Integer size, Long afterId) {
+        log.info("Get users: from={}, size={}, afterId={}", from, size, afterId);
+        List<User> users = afterId != null
+                ? userRepository.findByIdGreaterThanOrderByIdAsc(afterId, toPage(0, size))
+                : userRepository.findAll(toPage(from, size)).getContent();
+        String etag = ETags.digest("users", users.stream().map(user -> user.getId() + ":" + user.getVersion()));
+        return new Tagged<>(etag, users.stream().map(UserMapper::toDto).toList());
     }
 
+    /**
+     * Writes all users as one JSON array while scrolling the table, detaching each row once written
+     * so memory use does not grow with the number of users.
+     */
     @Override
-    public UserDto getUser(Long id) {
+    @Transactional(readOnly = true)
+    public void exportUsers(OutputStream out) {
+        log.info("Export users");
+        try (JsonGenerator generator = objectMapper.getFactory().createGenerator(out);
+             Stream<User> users = userRepository.streamAll()) {
+            generator.writeStartArray();
+            int written = 0;
+            for (User user : (Iterable<User>) users::iterator) {
+                generator.writeObject(UserMapper.toDto(user));
+                entityManager.detach(user);
+                if (++written % EXPORT_FLUSH_EVERY == 0) {
+                    generator.flush();
+                }
+            }
+            generator.writeEndArray();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Tag and body come from the same loaded row; the body is left out when the tag matches If-None-Match.
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public Tagged<UserDto> getUser(Long id, String ifNoneMatch) {
         log.info("Get user by id: {}", id);
         User user = userRepository.findById(id).orElseThrow(() -> new NotFoundException("User not found"));
-        return UserMapper.toDto(user);
+        String etag = toEtag(user);
+        if (ifNoneMatch != null && ETags.matches(ifNoneMatch, etag)) {
+            return new Tagged<>(etag, null);
+        }
+        return new Tagged<>(etag, UserMapper.toDto(user));
     }
 
+    /**
+     * The email check and the insert share one read-write transaction, so the check runs on the primary.
+     */
     @Override
+    @Transactional
     public UserDto createUser(UserDto userDto) {
         log.info("Create user: {}", userDto);
         if (userRepository.existsByEmail(userDto.getEmail())) {
@@ -40,9 +103,13 @@ public class UserServiceImpl implements UserService {
     }
 
     @Override
-    public UserDto updateUser(UserDto userDto, Long userId) {
+    @Transactional
+    public Tagged<UserDto> updateUser(UserDto userDto, Long userId, String ifMatch) {
         log.info("Update user with id {}", userId);
         User updateUser = userRepository.findById(userId).orElseThrow(() -> new NotFoundException("User not found"));
+        if (ifMatch != null && !ETags.matches(ifMatch, toEtag(updateUser))) {
+            throw new PreconditionFailedException("User with id " + userId + " was modified");
+        }
 
         if (userDto.getEmail() != null && !updateUser.getEmail().equals(userDto.getEmail())) {
             if (userRepository.existsByEmail(userDto.getEmail())) {
@@ -55,11 +122,25 @@ public class UserServiceImpl implements UserService {
             updateUser.setName(userDto.getName());
         }
 
-        return UserMapper.toDto(userRepository.save(updateUser));
+        User saved = userRepository.saveAndFlush(updateUser);
+        return new Tagged<>(toEtag(saved), UserMapper.toDto(saved));
     }
 
     @Override
+    @Transactional
     public void deleteUser(Long id) {
         userRepository.deleteById(id);
     }
+
+    private static Pageable toPage(int from, Integer size) {
+        Sort byId = Sort.by("id");
+        if (size == null) {
+            return from == 0 ? Pageable.unpaged(byId) : OffsetPageRequest.of(from, Integer.MAX_VALUE, byId);
+        }
+        return OffsetPageRequest.of(from, size, byId);
+    }
+
+    private static String toEtag(User user) {
+        return ETags.of("user", user.getId(), user.getVersion());
+    }
 }
\ No newline at end of file
@@ -5,6 +5,12 @@ import ru.practicum.shareit.exceptions.DuplicateDataException;
 import java.util.List;
 import java.util.Optional;
 
+/**
+ * Storage engine for users: {@link JpaUserStorage} by default, {@link InMemoryUserStorage} under the
+ * {@code inmemory} profile, both held to the same contract. The profile covers users and items only;
+ * bookings, comments and requests reference user and item rows and rely on database constraints, so
+ * they always stay on JPA.
+ */
 public interface UserStorage {
     List<User> getAllUsers();
 
@@ -15,6 +21,4 @@ public interface UserStorage {
     User updateUser(User user, Long id);
 
     void deleteUser(Long id);
-
-    Long getNextId();
 }
@@ -0,0 +1,10 @@
+-- Backing table for shareit.idempotency.store=jdbc; response stays NULL while the first request runs
+CREATE TABLE IF NOT EXISTS idempotency_keys (
+    idempotency_key VARCHAR(512) NOT NULL,
+    fingerprint VARCHAR(64) NOT NULL,
+    response VARCHAR,
+    expires_at TIMESTAMP NOT NULL,
+    CONSTRAINT pk_idempotency_keys PRIMARY KEY (idempotency_key)
+    );
+
+CREATE INDEX IF NOT EXISTS ix_idempotency_keys_expires ON idempotency_keys (expires_at);
@@ -0,0 +1,3 @@
+-- Own requests are listed newest first, other users' requests are paged in the same order
+CREATE INDEX IF NOT EXISTS ix_request_requestor_created ON request (requestor_id, created DESC, id DESC);
+CREATE INDEX IF NOT EXISTS ix_request_created ON request (created DESC, id DESC);
@@ -0,0 +1,22 @@
+-- Per-user booking badge counts, one row per (user, role). Counts are exact as of
+-- booking_counter_watermark.swept_at; BookingCounterService fills both tables on first start.
+CREATE TABLE IF NOT EXISTS booking_counters (
+    user_id BIGINT NOT NULL,
+    role VARCHAR(8) NOT NULL,
+    current_count BIGINT NOT NULL DEFAULT 0,
+    past_count BIGINT NOT NULL DEFAULT 0,
+    future_count BIGINT NOT NULL DEFAULT 0,
+    waiting_count BIGINT NOT NULL DEFAULT 0,
+    rejected_count BIGINT NOT NULL DEFAULT 0,
+    CONSTRAINT pk_booking_counters PRIMARY KEY (user_id, role)
+    );
+
+CREATE TABLE IF NOT EXISTS booking_counter_watermark (
+    id INT NOT NULL,
+    swept_at TIMESTAMP NOT NULL,
+    CONSTRAINT pk_booking_counter_watermark PRIMARY KEY (id)
+    );
+
+-- The sweeper looks for bookings whose start or end fell into the last sweep window
+CREATE INDEX IF NOT EXISTS ix_bookings_start ON bookings (start_date);
+CREATE INDEX IF NOT EXISTS ix_bookings_end ON bookings (end_date);
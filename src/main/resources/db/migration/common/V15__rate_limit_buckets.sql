@@ -0,0 +1,6 @@
+-- Backing table for shareit.ratelimit.store=jdbc; arrival is the epoch microsecond at which the bucket is full again
+CREATE TABLE IF NOT EXISTS rate_limit_buckets (
+    bucket_key VARCHAR(128) NOT NULL,
+    arrival BIGINT NOT NULL,
+    CONSTRAINT pk_rate_limit_buckets PRIMARY KEY (bucket_key)
+    );
@@ -0,0 +1,7 @@
+-- Per-booking event order: the booking's optimistic lock version is stored on each outbox event,
+-- since pooled booking_events_seq ids from several nodes do not follow commit order
+ALTER TABLE bookings ADD COLUMN IF NOT EXISTS version BIGINT NOT NULL DEFAULT 0;
+ALTER TABLE booking_events ADD COLUMN IF NOT EXISTS booking_version BIGINT NOT NULL DEFAULT 0;
+
+DROP INDEX IF EXISTS ix_booking_events_booking;
+CREATE INDEX IF NOT EXISTS ix_booking_events_booking ON booking_events (booking_id, booking_version, id);
@@ -0,0 +1,2 @@
+-- Identifies the execution that holds a pending key, so a run that outlived its reservation cannot store a response
+ALTER TABLE idempotency_keys ADD COLUMN IF NOT EXISTS owner_token VARCHAR(36);
@@ -1,5 +1,9 @@
 CREATE SCHEMA IF NOT EXISTS public;
 
+CREATE SEQUENCE IF NOT EXISTS items_seq START WITH 1 INCREMENT BY 50;
+
+CREATE SEQUENCE IF NOT EXISTS bookings_seq START WITH 1 INCREMENT BY 50;
+
 CREATE TABLE IF NOT EXISTS users (
     id BIGINT GENERATED BY DEFAULT AS IDENTITY NOT NULL,
     name VARCHAR(255),
@@ -49,5 +53,5 @@ CREATE TABLE IF NOT EXISTS comments (
     created TIMESTAMP,
     CONSTRAINT pk_comments PRIMARY KEY (id),
     CONSTRAINT fk_author FOREIGN KEY(author_id) REFERENCES users(id),
-    CONSTRAINT fk_item FOREIGN KEY(item_id) REFERENCES items(id)
+    CONSTRAINT fk_comment_item FOREIGN KEY(item_id) REFERENCES items(id)
     );
\ No newline at end of file
@@ -0,0 +1,10 @@
+-- Keywords of open item requests; new items are matched against them in the database, so every node sees
+-- the requests opened and closed by the others. Rows are filled for existing requests by migration 21.1
+CREATE TABLE IF NOT EXISTS request_terms (
+    term VARCHAR(255) NOT NULL,
+    request_id BIGINT NOT NULL,
+    CONSTRAINT pk_request_terms PRIMARY KEY (term, request_id),
+    CONSTRAINT fk_request_terms_request FOREIGN KEY (request_id) REFERENCES request (id) ON DELETE CASCADE
+    );
+
+CREATE INDEX IF NOT EXISTS ix_request_terms_request ON request_terms (request_id);
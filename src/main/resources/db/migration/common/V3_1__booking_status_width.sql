@@ -0,0 +1,2 @@
+-- VARCHAR(8) cannot hold CANCELLED; widen before anything writes that status
+ALTER TABLE bookings ALTER COLUMN status SET DATA TYPE VARCHAR(16);
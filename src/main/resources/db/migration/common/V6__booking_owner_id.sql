@@ -0,0 +1,3 @@
+-- Denormalized items.owner_id so owner booking lists filter without joining items.
+-- Nullable until BookingOwnerBackfill (migration 6.1) has filled existing rows in batches; V20 makes it NOT NULL.
+ALTER TABLE bookings ADD COLUMN IF NOT EXISTS owner_id BIGINT;
@@ -0,0 +1,10 @@
+CREATE TABLE IF NOT EXISTS item_booking_summary (
+    item_id BIGINT NOT NULL,
+    last_end TIMESTAMP,
+    next_start TIMESTAMP,
+    valid_until TIMESTAMP NOT NULL,
+    CONSTRAINT pk_item_booking_summary PRIMARY KEY (item_id),
+    CONSTRAINT fk_item_booking_summary_item FOREIGN KEY (item_id) REFERENCES items(id) ON DELETE CASCADE
+    );
+
+CREATE INDEX IF NOT EXISTS ix_item_booking_summary_valid ON item_booking_summary (valid_until);
@@ -0,0 +1,17 @@
+CREATE SEQUENCE IF NOT EXISTS booking_events_seq START WITH 1 INCREMENT BY 50;
+
+-- Transactional outbox for booking state changes; no FK so bookings can be archived independently
+CREATE TABLE IF NOT EXISTS booking_events (
+    id BIGINT NOT NULL,
+    booking_id BIGINT NOT NULL,
+    booker_id BIGINT NOT NULL,
+    owner_id BIGINT NOT NULL,
+    type VARCHAR(16) NOT NULL,
+    payload VARCHAR NOT NULL,
+    created_at TIMESTAMP NOT NULL,
+    published_at TIMESTAMP,
+    CONSTRAINT pk_booking_events PRIMARY KEY (id)
+    );
+
+CREATE INDEX IF NOT EXISTS ix_booking_events_pending ON booking_events (published_at, id);
+CREATE INDEX IF NOT EXISTS ix_booking_events_booking ON booking_events (booking_id, id);
@@ -0,0 +1,16 @@
+-- Cold storage for long-finished bookings; unpartitioned on H2
+CREATE TABLE IF NOT EXISTS bookings_archive (
+    id BIGINT NOT NULL,
+    start_date TIMESTAMP NOT NULL,
+    end_date TIMESTAMP NOT NULL,
+    item_id BIGINT NOT NULL,
+    booker_id BIGINT NOT NULL,
+    owner_id BIGINT,
+    status VARCHAR(16) NOT NULL,
+    archived_at TIMESTAMP NOT NULL,
+    CONSTRAINT pk_bookings_archive PRIMARY KEY (id)
+    );
+
+CREATE INDEX IF NOT EXISTS ix_bookings_archive_booker_start ON bookings_archive (booker_id, start_date DESC, id DESC);
+CREATE INDEX IF NOT EXISTS ix_bookings_archive_owner_start ON bookings_archive (owner_id, start_date DESC, id DESC);
+CREATE INDEX IF NOT EXISTS ix_bookings_archive_item_booker ON bookings_archive (item_id, booker_id, end_date);
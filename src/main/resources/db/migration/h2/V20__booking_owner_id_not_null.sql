@@ -0,0 +1,2 @@
+-- owner_id is filled by the 6.1 backfill; H2 has no NOT VALID checks, so the column is constrained directly
+ALTER TABLE bookings ALTER COLUMN owner_id SET NOT NULL;
@@ -0,0 +1 @@
+CREATE INDEX IF NOT EXISTS ix_bookings_owner_start ON bookings (owner_id, start_date DESC, id DESC);
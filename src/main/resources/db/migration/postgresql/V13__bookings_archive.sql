@@ -0,0 +1,29 @@
+-- Cold storage for long-finished bookings, range partitioned by month of start_date so PAST scans
+-- prune to the months they need. BookingArchiver creates the monthly partitions before moving rows;
+-- the default partition only catches rows written outside the archiver.
+CREATE TABLE IF NOT EXISTS bookings_archive (
+    id BIGINT NOT NULL,
+    start_date TIMESTAMP NOT NULL,
+    end_date TIMESTAMP NOT NULL,
+    item_id BIGINT NOT NULL,
+    booker_id BIGINT NOT NULL,
+    owner_id BIGINT,
+    status VARCHAR(16) NOT NULL,
+    archived_at TIMESTAMP NOT NULL,
+    CONSTRAINT pk_bookings_archive PRIMARY KEY (id, start_date)
+    ) PARTITION BY RANGE (start_date);
+
+CREATE TABLE IF NOT EXISTS bookings_archive_default PARTITION OF bookings_archive DEFAULT;
+
+CREATE INDEX IF NOT EXISTS ix_bookings_archive_booker_start ON bookings_archive (booker_id, start_date DESC, id DESC);
+CREATE INDEX IF NOT EXISTS ix_bookings_archive_owner_start ON bookings_archive (owner_id, start_date DESC, id DESC);
+CREATE INDEX IF NOT EXISTS ix_bookings_archive_item_booker ON bookings_archive (item_id, booker_id, end_date);
+
+-- Ownership changes reach archived rows too, so archive-inclusive owner lists agree with items
+CREATE OR REPLACE FUNCTION items_propagate_owner() RETURNS trigger AS $$
+BEGIN
+    UPDATE bookings SET owner_id = NEW.owner_id WHERE item_id = NEW.id;
+    UPDATE bookings_archive SET owner_id = NEW.owner_id WHERE item_id = NEW.id;
+    RETURN NEW;
+END;
+$$ LANGUAGE plpgsql;
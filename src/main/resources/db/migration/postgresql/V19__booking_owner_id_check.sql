@@ -0,0 +1,3 @@
+-- owner_id is filled by the 6.1 backfill; enforce it for new writes first. NOT VALID skips the scan of
+-- existing rows, so the ACCESS EXCLUSIVE lock is held only for the catalog change
+ALTER TABLE bookings ADD CONSTRAINT ck_bookings_owner_id_not_null CHECK (owner_id IS NOT NULL) NOT VALID;
@@ -0,0 +1,5 @@
+-- VALIDATE scans under SHARE UPDATE EXCLUSIVE, so reads and writes continue; SET NOT NULL then reuses the
+-- validated check instead of scanning again under ACCESS EXCLUSIVE, and the check becomes redundant
+ALTER TABLE bookings VALIDATE CONSTRAINT ck_bookings_owner_id_not_null;
+ALTER TABLE bookings ALTER COLUMN owner_id SET NOT NULL;
+ALTER TABLE bookings DROP CONSTRAINT ck_bookings_owner_id_not_null;
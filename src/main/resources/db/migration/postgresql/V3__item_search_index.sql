@@ -0,0 +1,6 @@
+-- /items/search matches the query as a case-insensitive substring of name or description;
+-- trigram indexes serve those LIKE '%...%' predicates
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+
+CREATE INDEX IF NOT EXISTS ix_items_name_trgm ON items USING GIN (upper(name) gin_trgm_ops);
+CREATE INDEX IF NOT EXISTS ix_items_description_trgm ON items USING GIN (upper(description) gin_trgm_ops);
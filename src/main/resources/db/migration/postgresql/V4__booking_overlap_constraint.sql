@@ -0,0 +1,47 @@
+CREATE EXTENSION IF NOT EXISTS btree_gist;
+
+-- The constraint cannot be added over rows that already violate it. Which of two overlapping bookings
+-- to keep is a business decision, so list them and stop; resolve them (reject or cancel one of each pair)
+-- and rerun the migration.
+DO $$
+DECLARE
+    conflict_count BIGINT;
+    report TEXT;
+BEGIN
+    WITH conflicts AS (
+        SELECT format('item %s: booking %s (%s, %s - %s)', b.item_id, b.id, b.status, b.start_date, b.end_date)
+                   || CASE WHEN o.id IS NULL THEN ' ends before it starts'
+                           ELSE format(' overlaps booking %s (%s, %s - %s)', o.id, o.status, o.start_date, o.end_date)
+                      END AS line,
+               b.item_id,
+               b.id      AS booking_id,
+               o.id      AS other_id
+        FROM bookings b
+                 LEFT JOIN bookings o
+                           ON o.item_id = b.item_id
+                               AND o.id > b.id
+                               AND o.status IN ('WAITING', 'APPROVED')
+                               AND o.start_date < b.end_date
+                               AND o.end_date > b.start_date
+        WHERE b.status IN ('WAITING', 'APPROVED')
+          AND (b.start_date > b.end_date OR o.id IS NOT NULL)
+    )
+    SELECT count(*),
+           string_agg(line, E'\n' ORDER BY item_id, booking_id, other_id) FILTER (WHERE rn <= 100)
+    INTO conflict_count, report
+    FROM (SELECT c.*, row_number() OVER (ORDER BY item_id, booking_id, other_id) AS rn FROM conflicts c) numbered;
+
+    IF conflict_count > 0 THEN
+        RAISE EXCEPTION 'Cannot add ex_booking_overlap: % conflicting active booking(s)', conflict_count
+            USING DETAIL = report,
+                HINT = 'Reject or cancel one booking of each overlapping pair and correct reversed ranges, '
+                    || 'then rerun the migration';
+    END IF;
+END;
+$$;
+
+ALTER TABLE bookings DROP CONSTRAINT IF EXISTS ex_booking_overlap;
+ALTER TABLE bookings ADD CONSTRAINT ex_booking_overlap EXCLUDE USING gist (
+    item_id WITH =,
+    tsrange(start_date, end_date) WITH &&
+    ) WHERE (status IN ('WAITING', 'APPROVED'));
@@ -0,0 +1,29 @@
+-- Covering index: owner lists resolve filter, keyset order and projected booking columns from the index
+CREATE INDEX IF NOT EXISTS ix_bookings_owner_start ON bookings (owner_id, start_date DESC, id DESC)
+    INCLUDE (end_date, status, item_id, booker_id);
+
+-- Keep owner_id consistent with items for inserts that bypass the application and for ownership changes
+CREATE OR REPLACE FUNCTION bookings_set_owner() RETURNS trigger AS $$
+BEGIN
+    SELECT owner_id INTO NEW.owner_id FROM items WHERE id = NEW.item_id;
+    RETURN NEW;
+END;
+$$ LANGUAGE plpgsql;
+
+DROP TRIGGER IF EXISTS tr_bookings_set_owner ON bookings;
+CREATE TRIGGER tr_bookings_set_owner
+    BEFORE INSERT OR UPDATE OF item_id ON bookings
+    FOR EACH ROW EXECUTE FUNCTION bookings_set_owner();
+
+CREATE OR REPLACE FUNCTION items_propagate_owner() RETURNS trigger AS $$
+BEGIN
+    UPDATE bookings SET owner_id = NEW.owner_id WHERE item_id = NEW.id;
+    RETURN NEW;
+END;
+$$ LANGUAGE plpgsql;
+
+DROP TRIGGER IF EXISTS tr_items_propagate_owner ON items;
+CREATE TRIGGER tr_items_propagate_owner
+    AFTER UPDATE OF owner_id ON items
+    FOR EACH ROW WHEN (OLD.owner_id IS DISTINCT FROM NEW.owner_id)
+    EXECUTE FUNCTION items_propagate_owner();
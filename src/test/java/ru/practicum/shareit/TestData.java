@@ -0,0 +1,27 @@
+package ru.practicum.shareit;
+
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.user.dto.UserDto;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+public final class TestData {
+
+    private TestData() {
+    }
+
+    public static UserDto user() {
+        String name = UUID.randomUUID().toString();
+        return UserDto.builder().name(name).email(name + "@test.ru").build();
+    }
+
+    public static ItemDto item(String name, String description) {
+        return ItemDto.builder().name(name).description(description).available(true).build();
+    }
+
+    public static BookingDto booking(Long itemId, LocalDateTime start, LocalDateTime end) {
+        return BookingDto.builder().itemId(itemId).start(start).end(end).build();
+    }
+}
@@ -0,0 +1,44 @@
+package ru.practicum.shareit.booking;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import ru.practicum.shareit.PostgresIntegrationTest;
+import ru.practicum.shareit.TestData;
+import ru.practicum.shareit.exceptions.ConditionsNotMetException;
+import ru.practicum.shareit.item.ItemService;
+import ru.practicum.shareit.user.UserService;
+
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Overlaps are rejected by the exclusion constraint; no application lock is involved.
+ */
+class BookingConcurrencyTest extends PostgresIntegrationTest {
+
+    @Autowired
+    private UserService userService;
+    @Autowired
+    private ItemService itemService;
+    @Autowired
+    private BookingService bookingService;
+
+    @Test
+    void parallelOverlappingBookingsOfOneItemLetExactlyOneThrough() throws Exception {
+        OverlappingBookingRace.run(userService, itemService, bookingService);
+    }
+
+    @Test
+    void reversedRangeIsRejectedBeforeTsrangeSeesIt() {
+        Long ownerId = userService.createUser(TestData.user()).getId();
+        Long bookerId = userService.createUser(TestData.user()).getId();
+        Long itemId = itemService.createItem(TestData.item("Drill", "Cordless drill"), ownerId).getId();
+        LocalDateTime start = LocalDateTime.now().plusDays(2);
+
+        assertThatThrownBy(() -> bookingService.addBooking(TestData.booking(itemId, start, start.minusDays(1)),
+                bookerId))
+                .isInstanceOf(ConditionsNotMetException.class)
+                .hasMessage("Booking start must be before its end");
+    }
+}
@@ -0,0 +1,177 @@
+package ru.practicum.shareit.booking;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.mockito.ArgumentCaptor;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.PostgresIntegrationTest;
+import ru.practicum.shareit.item.CommentRepository;
+import ru.practicum.shareit.item.ItemRepository;
+import ru.practicum.shareit.metrics.RequestQueryCounter;
+
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Predicate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.atLeastOnce;
+import static org.mockito.Mockito.clearInvocations;
+import static org.mockito.Mockito.verify;
+
+/**
+ * Checks with EXPLAIN that the listing queries are answered from the indexes added for them. The statements
+ * are the ones Hibernate actually sends, captured through the statement inspector, and are planned as generic
+ * plans over a seeded table large enough for the planner to pick the index on its own.
+ */
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class BookingIndexUsageTest extends PostgresIntegrationTest {
+
+    private static final int USERS = 2_000;
+    private static final int ITEMS = 5_000;
+    private static final int BOOKINGS = 100_000;
+    private static final int COMMENTS = 20_000;
+
+    @SpyBean
+    private RequestQueryCounter queryCounter;
+    @Autowired
+    private BookingService bookingService;
+    @Autowired
+    private BookingRepository bookingRepository;
+    @Autowired
+    private ItemRepository itemRepository;
+    @Autowired
+    private CommentRepository commentRepository;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    private Long userId;
+    private Long itemId;
+
+    @BeforeAll
+    void seed() {
+        jdbcTemplate.update("INSERT INTO users (name, email) "
+                + "SELECT 'seed ' || g, 'seed' || g || '@index.test' FROM generate_series(1, ?) g", USERS);
+        jdbcTemplate.update("WITH owners AS (SELECT id, row_number() OVER (ORDER BY id) - 1 AS n FROM users "
+                + "WHERE email LIKE '%@index.test') "
+                + "INSERT INTO items (id, name, description, is_available, owner_id) "
+                + "SELECT nextval('items_seq'), 'Seed item ' || g, 'Seeded', true, o.id "
+                + "FROM generate_series(0, ? - 1) g JOIN owners o ON o.n = g % ?", ITEMS, USERS);
+        // Booking g is the (g / ITEMS)-th day slot of its item, so active bookings of one item never overlap
+        jdbcTemplate.update("WITH i AS (SELECT id, row_number() OVER (ORDER BY id) - 1 AS n FROM items "
+                + "WHERE description = 'Seeded'), "
+                + "u AS (SELECT id, row_number() OVER (ORDER BY id) - 1 AS n FROM users "
+                + "WHERE email LIKE '%@index.test') "
+                + "INSERT INTO bookings (id, start_date, end_date, item_id, booker_id, status) "
+                + "SELECT nextval('bookings_seq'), "
+                + "localtimestamp + (g / ? - 10) * interval '1 day', "
+                + "localtimestamp + (g / ? - 10) * interval '1 day' + interval '1 hour', "
+                + "i.id, u.id, 'APPROVED' "
+                + "FROM generate_series(0, ? - 1) g JOIN i ON i.n = g % ? JOIN u ON u.n = (g * 7) % ?",
+                ITEMS, ITEMS, BOOKINGS, ITEMS, USERS);
+        jdbcTemplate.update("INSERT INTO comments (text, item_id, author_id, created) "
+                + "SELECT 'Seeded comment', b.item_id, b.booker_id, b.end_date FROM bookings b "
+                + "JOIN items i ON i.id = b.item_id AND i.description = 'Seeded' "
+                + "ORDER BY b.id LIMIT ?", COMMENTS);
+        jdbcTemplate.execute("ANALYZE users");
+        jdbcTemplate.execute("ANALYZE items");
+        jdbcTemplate.execute("ANALYZE bookings");
+        jdbcTemplate.execute("ANALYZE comments");
+        userId = jdbcTemplate.queryForObject(
+                "SELECT min(id) FROM users WHERE email LIKE '%@index.test'", Long.class);
+        itemId = jdbcTemplate.queryForObject(
+                "SELECT min(id) FROM items WHERE description = 'Seeded'", Long.class);
+    }
+
+    @Test
+    void bookerListUsesBookerIndex() {
+        String sql = captured(() -> bookingService.getBookings(
+                        BookingFilter.builder().bookerId(userId).state(BookingState.FUTURE).build(), 0, 20, null),
+                statement -> statement.contains("from bookings ") && statement.contains("order by"));
+
+        assertThat(plan(sql)).contains("ix_bookings_booker_start");
+    }
+
+    @Test
+    void ownerListUsesCoveringOwnerIndex() {
+        String sql = captured(() -> bookingService.getBookings(
+                        BookingFilter.builder().ownerId(userId).state(BookingState.FUTURE).build(), 0, 20, null),
+                statement -> statement.contains("from bookings ") && statement.contains("order by"));
+
+        assertThat(plan(sql)).contains("ix_bookings_owner_start");
+    }
+
+    @Test
+    void archiveListingIsOrderedAndLimitedByTheDatabase() {
+        String sql = captured(() -> bookingService.getBookings(
+                        BookingFilter.builder().bookerId(userId).state(BookingState.PAST).build(), 40, 20, null),
+                statement -> statement.contains(" union all ") && statement.contains("order by"));
+
+        assertThat(plan(sql)).contains("Limit", "ix_bookings_booker_start");
+    }
+
+    @Test
+    void nextAndLastBookingAggregatesUseItemIndexes() {
+        LocalDateTime now = LocalDateTime.now();
+
+        assertThat(plan(captured(() -> bookingRepository.findNextBookingStarts(List.of(itemId), now),
+                statement -> statement.contains("min(")))).contains("ix_bookings_item_start");
+        assertThat(plan(captured(() -> bookingRepository.findLastBookingEnds(List.of(itemId), now),
+                statement -> statement.contains("max(")))).contains("ix_bookings_item_end");
+    }
+
+    @Test
+    void ownerItemsAndCommentsUseTheirForeignKeyIndexes() {
+        assertThat(plan(captured(() -> itemRepository.findByOwner_id(userId),
+                statement -> statement.contains("from items ")))).contains("ix_items_owner");
+        assertThat(plan(captured(() -> commentRepository.findByItemIdIn(List.of(itemId)),
+                statement -> statement.contains("from comments ")))).contains("ix_comments_item");
+    }
+
+    /**
+     * Runs the call and returns the last statement it sent that matches, as Hibernate rendered it.
+     */
+    private String captured(Runnable call, Predicate<String> matching) {
+        clearInvocations(queryCounter);
+        call.run();
+        ArgumentCaptor<String> statements = ArgumentCaptor.forClass(String.class);
+        verify(queryCounter, atLeastOnce()).statementExecuted(statements.capture());
+        List<String> matches = statements.getAllValues().stream().filter(matching).toList();
+        assertThat(matches).as("statements sent: %s", statements.getAllValues()).isNotEmpty();
+        return matches.get(matches.size() - 1);
+    }
+
+    /**
+     * EXPLAIN of the statement prepared with its JDBC placeholders as numbered parameters. The plan is forced
+     * generic, so it does not depend on the values passed to EXECUTE.
+     */
+    private String plan(String sql) {
+        StringBuilder numbered = new StringBuilder();
+        int parameters = 0;
+        for (char c : sql.toCharArray()) {
+            if (c == '?') {
+                numbered.append('$').append(++parameters);
+            } else {
+                numbered.append(c);
+            }
+        }
+        String execute = parameters > 0
+                ? "EXPLAIN EXECUTE captured(" + String.join(", ", Collections.nCopies(parameters, "NULL")) + ")"
+                : "EXPLAIN EXECUTE captured";
+        return transactionTemplate.execute(status -> {
+            jdbcTemplate.execute("SET LOCAL plan_cache_mode = force_generic_plan");
+            jdbcTemplate.execute("PREPARE captured AS " + numbered);
+            try {
+                return String.join("\n", jdbcTemplate.queryForList(execute, String.class));
+            } finally {
+                jdbcTemplate.execute("DEALLOCATE captured");
+            }
+        });
+    }
+}
@@ -0,0 +1,47 @@
+package ru.practicum.shareit.booking;
+
+import org.flywaydb.core.Flyway;
+import org.flywaydb.core.api.configuration.FluentConfiguration;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Upgrades a database that holds bookings from before owner_id existed through the batched backfill
+ * and the NOT NULL migration.
+ */
+class BookingOwnerBackfillTest {
+
+    private static final String URL = "jdbc:h2:mem:shareit-owner-backfill;DB_CLOSE_DELAY=-1";
+
+    @Test
+    void legacyBookingsAreFilledInBatchesBeforeOwnerIdBecomesMandatory() {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(URL, "sa", "");
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+        flyway(dataSource).target("6").load().migrate();
+        jdbcTemplate.update("INSERT INTO users (id, name, email) VALUES (1, 'owner', 'o@mail.ru'), " +
+                "(2, 'booker', 'b@mail.ru')");
+        jdbcTemplate.update("INSERT INTO items (id, name, description, is_available, owner_id) " +
+                "VALUES (1, 'Drill', 'Cordless drill', true, 1)");
+        for (long id = 1; id <= 7; id++) {
+            jdbcTemplate.update("INSERT INTO bookings (id, start_date, end_date, item_id, booker_id, status) " +
+                    "VALUES (?, CURRENT_TIMESTAMP, CURRENT_TIMESTAMP, 1, 2, 'APPROVED')", id * 3);
+        }
+
+        flyway(dataSource).load().migrate();
+
+        assertThat(jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM bookings WHERE owner_id = 1", Integer.class)).isEqualTo(7);
+        assertThat(jdbcTemplate.queryForObject("SELECT IS_NULLABLE FROM INFORMATION_SCHEMA.COLUMNS " +
+                "WHERE TABLE_NAME = 'BOOKINGS' AND COLUMN_NAME = 'OWNER_ID'", String.class)).isEqualTo("NO");
+    }
+
+    private static FluentConfiguration flyway(DriverManagerDataSource dataSource) {
+        return Flyway.configure()
+                .dataSource(dataSource)
+                .locations("classpath:db/migration/common", "classpath:db/migration/h2")
+                .javaMigrations(new BookingOwnerBackfill(2));
+    }
+}
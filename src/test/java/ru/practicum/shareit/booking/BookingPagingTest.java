@@ -0,0 +1,89 @@
+package ru.practicum.shareit.booking;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import ru.practicum.shareit.TestData;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.item.ItemService;
+import ru.practicum.shareit.user.UserService;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+class BookingPagingTest {
+
+    @Autowired
+    private UserService userService;
+    @Autowired
+    private ItemService itemService;
+    @Autowired
+    private BookingService bookingService;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private Long ownerId;
+    private Long itemId;
+    private Long bookerId;
+    private final List<Long> newestFirst = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        ownerId = userService.createUser(TestData.user()).getId();
+        bookerId = userService.createUser(TestData.user()).getId();
+        itemId = itemService.createItem(TestData.item("Ladder", "Folding ladder"), ownerId).getId();
+        LocalDateTime start = LocalDateTime.now().plusDays(1);
+        for (int i = 0; i < 5; i++) {
+            LocalDateTime from = start.plusDays(i);
+            newestFirst.add(0, bookingService.addBooking(
+                    TestData.booking(itemId, from, from.plusHours(1)), bookerId).getId());
+        }
+    }
+
+    @Test
+    void fromIsARowOffsetNotAPageNumber() {
+        BookingFilter filter = BookingFilter.builder().bookerId(bookerId).build();
+
+        List<BookingDto> page = bookingService.getBookings(filter, 1, 3, null);
+
+        assertThat(page).extracting(BookingDto::getId).containsExactlyElementsOf(newestFirst.subList(1, 4));
+    }
+
+    @Test
+    void withoutSizeTheWholeListIsReturned() {
+        BookingFilter filter = BookingFilter.builder().bookerId(bookerId).build();
+
+        assertThat(bookingService.getBookings(filter, 0, null, null))
+                .extracting(BookingDto::getId)
+                .containsExactlyElementsOf(newestFirst);
+        assertThat(bookingService.getBookings(filter, 2, null, null))
+                .extracting(BookingDto::getId)
+                .containsExactlyElementsOf(newestFirst.subList(2, 5));
+    }
+
+    @Test
+    void archivedBookingsAreOffsetTogetherWithHotOnes() {
+        LocalDateTime past = LocalDateTime.now().minusYears(1).withNano(0);
+        List<Long> archived = List.of(-itemId * 2, -itemId * 2 - 1);
+        for (int i = 0; i < archived.size(); i++) {
+            jdbcTemplate.update("INSERT INTO bookings_archive (id, start_date, end_date, item_id, booker_id, " +
+                            "owner_id, status, archived_at) VALUES (?, ?, ?, ?, ?, ?, 'APPROVED', ?)",
+                    archived.get(i), past.minusDays(i), past.minusDays(i).plusHours(1), itemId, bookerId, ownerId,
+                    LocalDateTime.now());
+        }
+        BookingFilter filter = BookingFilter.builder().bookerId(bookerId).build();
+
+        assertThat(bookingService.getBookings(filter, 4, 2, null))
+                .extracting(BookingDto::getId)
+                .containsExactly(newestFirst.get(4), archived.get(0));
+        assertThat(bookingService.getBookings(filter, 5, 2, null))
+                .extracting(BookingDto::getId)
+                .containsExactlyElementsOf(archived);
+    }
+}
@@ -0,0 +1,117 @@
+package ru.practicum.shareit.booking;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.TestData;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.item.ItemMapper;
+import ru.practicum.shareit.item.ItemService;
+import ru.practicum.shareit.metrics.RequestQueryCounter;
+import ru.practicum.shareit.user.UserMapper;
+import ru.practicum.shareit.user.UserService;
+
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Compares the projection read path with the entity-graph rendering it replaced: statements issued and
+ * response bytes for the same booker listing. The numbers are logged for the change record.
+ */
+@SpringBootTest
+@Slf4j
+class BookingReadPathMeasurementTest {
+
+    private static final int ROWS = 10;
+
+    @Autowired
+    private UserService userService;
+    @Autowired
+    private ItemService itemService;
+    @Autowired
+    private BookingService bookingService;
+    @Autowired
+    private RequestQueryCounter counter;
+    @Autowired
+    private EntityManager entityManager;
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private Long bookerId;
+
+    @BeforeEach
+    void setUp() {
+        bookerId = userService.createUser(TestData.user()).getId();
+        LocalDateTime start = LocalDateTime.now().plusDays(1);
+        for (int i = 0; i < ROWS; i++) {
+            Long ownerId = userService.createUser(TestData.user()).getId();
+            Long itemId = itemService.createItem(TestData.item("Item " + i, "Description " + i), ownerId).getId();
+            bookingService.addBooking(TestData.booking(itemId, start, start.plusHours(1)), bookerId);
+        }
+    }
+
+    @Test
+    void projectionIssuesAConstantNumberOfStatementsAndSmallerPayload() throws Exception {
+        Measurement lean = measure(() -> bookingService.getBookings(
+                BookingFilter.builder().bookerId(bookerId).build(), 0, null, null));
+        Measurement entities = measure(() -> transactionTemplate.execute(status -> entityManager
+                .createQuery("select b from Booking b where b.booker.id = :bookerId order by b.start desc",
+                        Booking.class)
+                .setParameter("bookerId", bookerId)
+                .getResultList().stream()
+                .map(BookingReadPathMeasurementTest::toEntityShape)
+                .toList()));
+        log.info("Booker listing of {} rows: projection {} statements / {} bytes, "
+                        + "entity graph {} statements / {} bytes", ROWS, lean.statements(), lean.bytes(), entities.statements(), entities.bytes());
+
+        // booker lookup, live table, archive
+        assertThat(lean.statements()).isLessThanOrEqualTo(3);
+        assertThat(entities.statements()).isGreaterThan(ROWS);
+        assertThat(lean.bytes()).isLessThan(entities.bytes());
+    }
+
+    private Measurement measure(Supplier<List<?>> listing) throws Exception {
+        // cold reads: items and users set up above would otherwise come from the second-level cache
+        entityManager.getEntityManagerFactory().getCache().evictAll();
+        counter.start("measurement");
+        List<?> rows;
+        try {
+            rows = listing.get();
+        } finally {
+            entityManager.clear();
+        }
+        RequestQueryCounter.Counts counts = counter.stop();
+        assertThat(rows).hasSize(ROWS);
+        return new Measurement(counts.getStatements(), objectMapper.writeValueAsBytes(rows).length);
+    }
+
+    /**
+     * The representation before the projection: the booking with its full item, the item's owner and the booker.
+     */
+    private static Map<String, Object> toEntityShape(Booking booking) {
+        Map<String, Object> item = new LinkedHashMap<>();
+        item.put("item", ItemMapper.toDto(booking.getItem()));
+        item.put("owner", UserMapper.toDto(booking.getItem().getOwner()));
+        Map<String, Object> shape = new LinkedHashMap<>();
+        shape.put("booking", BookingDto.builder().id(booking.getId()).start(booking.getStart())
+                .end(booking.getEnd()).status(booking.getStatus()).build());
+        shape.put("item", item);
+        shape.put("booker", UserMapper.toDto(booking.getBooker()));
+        return shape;
+    }
+
+    private record Measurement(int statements, int bytes) {
+    }
+}
@@ -0,0 +1,27 @@
+package ru.practicum.shareit.booking;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import ru.practicum.shareit.item.ItemService;
+import ru.practicum.shareit.user.UserService;
+
+/**
+ * H2 has no exclusion constraint; overlaps are kept out by the striped item locks around check and insert
+ * (shareit.booking.item-locks.enabled in the test profile).
+ */
+@SpringBootTest
+class H2BookingConcurrencyTest {
+
+    @Autowired
+    private UserService userService;
+    @Autowired
+    private ItemService itemService;
+    @Autowired
+    private BookingService bookingService;
+
+    @Test
+    void parallelOverlappingBookingsOfOneItemLetExactlyOneThrough() throws Exception {
+        OverlappingBookingRace.run(userService, itemService, bookingService);
+    }
+}
@@ -0,0 +1,59 @@
+package ru.practicum.shareit.booking;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import ru.practicum.shareit.TestData;
+import ru.practicum.shareit.booking.dto.TimeWindowDto;
+import ru.practicum.shareit.exceptions.NotOwnerException;
+import ru.practicum.shareit.item.ItemService;
+import ru.practicum.shareit.user.UserService;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+class ItemAvailabilityTest {
+
+    @Autowired
+    private UserService userService;
+    @Autowired
+    private ItemService itemService;
+    @Autowired
+    private BookingService bookingService;
+
+    @Test
+    void freeWindowsSkipActiveBookingsOnly() throws NotOwnerException {
+        Long ownerId = userService.createUser(TestData.user()).getId();
+        Long bookerId = userService.createUser(TestData.user()).getId();
+        Long itemId = itemService.createItem(TestData.item("Tent", "Two person tent"), ownerId).getId();
+        LocalDateTime from = LocalDateTime.now().plusDays(1).truncatedTo(ChronoUnit.SECONDS);
+        Long approved = bookingService.addBooking(
+                TestData.booking(itemId, from.plusHours(1), from.plusHours(2)), bookerId).getId();
+        bookingService.approveBooking(ownerId, approved, true);
+        bookingService.addBooking(TestData.booking(itemId, from.plusHours(3), from.plusHours(4)), bookerId);
+        Long rejected = bookingService.addBooking(
+                TestData.booking(itemId, from.plusHours(5), from.plusHours(6)), bookerId).getId();
+        bookingService.approveBooking(ownerId, rejected, false);
+
+        assertThat(itemService.getFreeWindows(itemId, from, from.plusHours(8))).containsExactly(
+                new TimeWindowDto(from, from.plusHours(1)),
+                new TimeWindowDto(from.plusHours(2), from.plusHours(3)),
+                new TimeWindowDto(from.plusHours(4), from.plusHours(8)));
+    }
+
+    @Test
+    void bookingsCutByTheRangeLeaveNoWindowAtTheEdges() {
+        Long ownerId = userService.createUser(TestData.user()).getId();
+        Long bookerId = userService.createUser(TestData.user()).getId();
+        Long itemId = itemService.createItem(TestData.item("Kayak", "Single kayak"), ownerId).getId();
+        LocalDateTime from = LocalDateTime.now().plusDays(1).truncatedTo(ChronoUnit.SECONDS);
+        bookingService.addBooking(TestData.booking(itemId, from.minusHours(1), from.plusHours(1)), bookerId);
+        bookingService.addBooking(TestData.booking(itemId, from.plusHours(2), from.plusHours(5)), bookerId);
+
+        assertThat(itemService.getFreeWindows(itemId, from, from.plusHours(3))).containsExactly(
+                new TimeWindowDto(from.plusHours(1), from.plusHours(2)));
+    }
+}
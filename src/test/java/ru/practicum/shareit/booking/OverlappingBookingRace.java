@@ -0,0 +1,80 @@
+package ru.practicum.shareit.booking;
+
+import ru.practicum.shareit.TestData;
+import ru.practicum.shareit.exceptions.ConditionsNotMetException;
+import ru.practicum.shareit.item.ItemService;
+import ru.practicum.shareit.user.UserService;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Fires many mutually overlapping booking attempts per item at once, released together by a latch, and checks
+ * that exactly one per item gets through while every other one is turned away as an overlap.
+ */
+final class OverlappingBookingRace {
+
+    static final int ITEMS = 20;
+    static final int ATTEMPTS_PER_ITEM = 100;
+    static final int THREADS = 64;
+    private static final int BOOKERS = 10;
+
+    private OverlappingBookingRace() {
+    }
+
+    static void run(UserService userService, ItemService itemService, BookingService bookingService)
+            throws Exception {
+        Long ownerId = userService.createUser(TestData.user()).getId();
+        List<Long> itemIds = new ArrayList<>();
+        for (int i = 0; i < ITEMS; i++) {
+            itemIds.add(itemService.createItem(TestData.item("Drill " + i, "Cordless drill"), ownerId).getId());
+        }
+        List<Long> bookerIds = new ArrayList<>();
+        for (int i = 0; i < BOOKERS; i++) {
+            bookerIds.add(userService.createUser(TestData.user()).getId());
+        }
+        LocalDateTime start = LocalDateTime.now().plusDays(1);
+
+        CountDownLatch ready = new CountDownLatch(1);
+        Map<Long, AtomicInteger> succeeded = new ConcurrentHashMap<>();
+        List<Future<?>> attempts = new ArrayList<>();
+        try (ExecutorService executor = Executors.newFixedThreadPool(THREADS)) {
+            for (int attempt = 0; attempt < ATTEMPTS_PER_ITEM; attempt++) {
+                for (Long itemId : itemIds) {
+                    Long bookerId = bookerIds.get(attempt % BOOKERS);
+                    // Every interval of an item overlaps every other one, but none is identical
+                    LocalDateTime from = start.plusMinutes(attempt);
+                    attempts.add(executor.submit(() -> {
+                        ready.await();
+                        bookingService.addBooking(TestData.booking(itemId, from, from.plusDays(1)), bookerId);
+                        succeeded.computeIfAbsent(itemId, id -> new AtomicInteger()).incrementAndGet();
+                        return null;
+                    }));
+                }
+            }
+            ready.countDown();
+
+            for (Future<?> attempt : attempts) {
+                try {
+                    attempt.get();
+                } catch (ExecutionException e) {
+                    assertThat(e.getCause())
+                            .isInstanceOf(ConditionsNotMetException.class)
+                            .hasMessage("Reservation already exists");
+                }
+            }
+        }
+        assertThat(itemIds).allSatisfy(itemId -> assertThat(succeeded.get(itemId)).hasValue(1));
+    }
+}
@@ -0,0 +1,51 @@
+package ru.practicum.shareit.booking;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import ru.practicum.shareit.PostgresIntegrationTest;
+import ru.practicum.shareit.TestData;
+import ru.practicum.shareit.item.ItemService;
+import ru.practicum.shareit.user.UserService;
+
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Ownership changes made straight in the items table reach the denormalized owner_id of live and archived
+ * bookings through the items_propagate_owner trigger.
+ */
+class OwnerPropagationTest extends PostgresIntegrationTest {
+
+    @Autowired
+    private UserService userService;
+    @Autowired
+    private ItemService itemService;
+    @Autowired
+    private BookingService bookingService;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void newOwnerIsWrittenToLiveAndArchivedBookings() {
+        Long ownerId = userService.createUser(TestData.user()).getId();
+        Long newOwnerId = userService.createUser(TestData.user()).getId();
+        Long bookerId = userService.createUser(TestData.user()).getId();
+        Long itemId = itemService.createItem(TestData.item("Drill", "Cordless drill"), ownerId).getId();
+        LocalDateTime start = LocalDateTime.now().plusDays(1).withNano(0);
+        Long bookingId = bookingService.addBooking(TestData.booking(itemId, start, start.plusDays(1)), bookerId)
+                .getId();
+        jdbcTemplate.update("INSERT INTO bookings_archive (id, start_date, end_date, item_id, booker_id, owner_id, " +
+                        "status, archived_at) VALUES (?, ?, ?, ?, ?, ?, 'APPROVED', ?)",
+                -itemId, start.minusYears(1), start.minusYears(1).plusDays(1), itemId, bookerId, ownerId,
+                LocalDateTime.now());
+
+        jdbcTemplate.update("UPDATE items SET owner_id = ? WHERE id = ?", newOwnerId, itemId);
+
+        assertThat(jdbcTemplate.queryForObject("SELECT owner_id FROM bookings WHERE id = ?", Long.class, bookingId))
+                .isEqualTo(newOwnerId);
+        assertThat(jdbcTemplate.queryForObject("SELECT owner_id FROM bookings_archive WHERE id = ?", Long.class,
+                -itemId)).isEqualTo(newOwnerId);
+    }
+}
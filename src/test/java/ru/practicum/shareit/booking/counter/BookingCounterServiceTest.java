@@ -0,0 +1,64 @@
+package ru.practicum.shareit.booking.counter;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import ru.practicum.shareit.TestData;
+import ru.practicum.shareit.booking.BookingService;
+import ru.practicum.shareit.booking.dto.BookingCountsDto;
+import ru.practicum.shareit.item.ItemService;
+import ru.practicum.shareit.user.UserService;
+
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+class BookingCounterServiceTest {
+
+    @Autowired
+    private UserService userService;
+    @Autowired
+    private ItemService itemService;
+    @Autowired
+    private BookingService bookingService;
+    @Autowired
+    private BookingCounterService bookingCounterService;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void newBookingsAndStatusChangesCreateAndUpdateRows() throws Exception {
+        Long ownerId = userService.createUser(TestData.user()).getId();
+        Long bookerId = userService.createUser(TestData.user()).getId();
+        Long itemId = itemService.createItem(TestData.item("Bike", "City bike"), ownerId).getId();
+        LocalDateTime start = LocalDateTime.now().plusDays(1);
+        Long first = bookingService.addBooking(TestData.booking(itemId, start, start.plusDays(1)), bookerId).getId();
+        bookingService.addBooking(TestData.booking(itemId, start.plusDays(2), start.plusDays(3)), bookerId);
+
+        bookingService.approveBooking(ownerId, first, false);
+
+        assertThat(bookingCounterService.getCounts(bookerId).getBooker())
+                .isEqualTo(new BookingCountsDto.Counts(0, 0, 2, 1, 1));
+        assertThat(bookingCounterService.getCounts(ownerId).getOwner())
+                .isEqualTo(new BookingCountsDto.Counts(0, 0, 2, 1, 1));
+    }
+
+    @Test
+    void rebuildReplacesLeftoverRowsInsteadOfGivingUp() {
+        Long ownerId = userService.createUser(TestData.user()).getId();
+        Long bookerId = userService.createUser(TestData.user()).getId();
+        Long itemId = itemService.createItem(TestData.item("Tent", "Four person tent"), ownerId).getId();
+        LocalDateTime start = LocalDateTime.now().plusDays(1);
+        bookingService.addBooking(TestData.booking(itemId, start, start.plusDays(1)), bookerId);
+
+        jdbcTemplate.update("DELETE FROM booking_counter_watermark");
+        jdbcTemplate.update("UPDATE booking_counters SET waiting_count = 42 WHERE user_id = ?", bookerId);
+
+        bookingCounterService.initialize();
+
+        assertThat(bookingCounterService.getCounts(bookerId).getBooker())
+                .isEqualTo(new BookingCountsDto.Counts(0, 0, 1, 1, 0));
+    }
+}
@@ -0,0 +1,137 @@
+package ru.practicum.shareit.booking.event;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Drives the relay over a mocked outbox. Ids are chosen as two nodes drawing from different pooled
+ * sequence blocks would assign them, so id order and version order of one booking disagree.
+ */
+class BookingEventRelayTest {
+
+    private final BookingEventRepository repository = mock(BookingEventRepository.class);
+    private final PlatformTransactionManager transactionManager = mock(PlatformTransactionManager.class);
+
+    @Test
+    void eventsOfOneBookingArePublishedInVersionOrderAcrossSequenceBlocks() {
+        BookingEvent approved = event(51, 1, 2);
+        BookingEvent other = event(60, 2, 0);
+        BookingEvent created = event(120, 1, 1);
+        lock(approved, other, created);
+        RecordingSink sink = new RecordingSink();
+
+        relay(sink).relay();
+
+        assertThat(sink.published).extracting(BookingEventMessage::getEventId).containsExactly(120L, 60L, 51L);
+    }
+
+    @Test
+    void bookingWithAnOlderEventOutsideTheBatchIsHeldBack() {
+        BookingEvent approved = event(51, 1, 2);
+        BookingEvent other = event(60, 2, 1);
+        lock(approved, other);
+        when(repository.findPendingOutside(anyCollection(), anyCollection()))
+                .thenReturn(List.of(event(120, 1, 1), event(130, 2, 2)));
+        RecordingSink sink = new RecordingSink();
+
+        relay(sink).relay();
+
+        assertThat(sink.published).extracting(BookingEventMessage::getEventId).containsExactly(60L);
+        assertThat(approved.getPublishedAt()).isNull();
+        assertThat(other.getPublishedAt()).isNotNull();
+    }
+
+    @Test
+    void batchIsRedeliveredAfterASinkThrows() {
+        BookingEvent created = event(51, 1, 1);
+        lock(created);
+        RecordingSink sink = new RecordingSink();
+        sink.failures = 1;
+        BookingEventRelay relay = relay(sink);
+
+        relay.relay();
+
+        verify(transactionManager).rollback(any());
+        assertThat(created.getPublishedAt()).isNull();
+
+        relay.relay();
+
+        assertThat(sink.calls).containsExactly(List.of(51L), List.of(51L));
+        assertThat(created.getPublishedAt()).isNotNull();
+    }
+
+    @Test
+    void eventsAreMarkedPublishedOnlyOnceEverySinkAcceptedThem() {
+        BookingEvent created = event(51, 1, 1);
+        lock(created);
+        RecordingSink first = new RecordingSink();
+        RecordingSink second = new RecordingSink();
+        second.failures = 1;
+        BookingEventRelay relay = relay(first, second);
+
+        relay.relay();
+
+        assertThat(first.published).hasSize(1);
+        assertThat(second.published).isEmpty();
+        assertThat(created.getPublishedAt()).isNull();
+
+        relay.relay();
+
+        assertThat(second.published).extracting(BookingEventMessage::getEventId).containsExactly(51L);
+        assertThat(created.getPublishedAt()).isNotNull();
+    }
+
+    private BookingEventRelay relay(BookingEventSink... sinks) {
+        return new BookingEventRelay(repository, List.of(sinks), new TransactionTemplate(transactionManager),
+                new SimpleMeterRegistry(), 100, 72);
+    }
+
+    private void lock(BookingEvent... batch) {
+        when(repository.lockUnpublished(any())).thenAnswer(invocation -> List.of(batch).stream()
+                .filter(event -> event.getPublishedAt() == null)
+                .toList());
+    }
+
+    private static BookingEvent event(long id, long bookingId, long version) {
+        return BookingEvent.builder()
+                .id(id)
+                .bookingId(bookingId)
+                .bookerId(10L)
+                .ownerId(20L)
+                .bookingVersion(version)
+                .type(BookingEventType.CREATED)
+                .payload("{}")
+                .createdAt(LocalDateTime.now())
+                .build();
+    }
+
+    private static class RecordingSink implements BookingEventSink {
+
+        private final List<List<Long>> calls = new ArrayList<>();
+        private final List<BookingEventMessage> published = new ArrayList<>();
+        private int failures;
+
+        @Override
+        public void publish(List<BookingEventMessage> events) throws Exception {
+            calls.add(events.stream().map(BookingEventMessage::getEventId).toList());
+            if (failures > 0) {
+                failures--;
+                throw new Exception("Sink unavailable");
+            }
+            published.addAll(events);
+        }
+    }
+}
@@ -0,0 +1,158 @@
+package ru.practicum.shareit.bulk;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.event.ApplicationEvents;
+import org.springframework.test.context.event.RecordApplicationEvents;
+import ru.practicum.shareit.TestData;
+import ru.practicum.shareit.bulk.dto.BulkImportResult;
+import ru.practicum.shareit.bulk.dto.BulkRowError;
+import ru.practicum.shareit.item.ItemService;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.request.ItemRequestMatch;
+import ru.practicum.shareit.request.ItemRequestService;
+import ru.practicum.shareit.request.dto.ItemRequestDto;
+import ru.practicum.shareit.user.UserService;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@RecordApplicationEvents
+class BulkServiceTest {
+
+    @Autowired
+    private BulkService bulkService;
+    @Autowired
+    private UserService userService;
+    @Autowired
+    private ItemService itemService;
+    @Autowired
+    private ItemRequestService itemRequestService;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void rejectedChunkIsRetriedSoOnlyTheOffendingRowFails() {
+        Long ownerId = userService.createUser(TestData.user()).getId();
+        String tooLong = "x".repeat(300);
+        String body = """
+                {"name":"Drill","description":"Cordless drill","available":true}
+                {"name":"%s","description":"Name longer than the column","available":true}
+                {"name":"Saw","description":"Hand saw","available":true}
+                """.formatted(tooLong);
+
+        BulkImportResult result = bulkService.importItems(ownerId, ndjson(body), BulkFormat.NDJSON);
+
+        assertThat(result.getImported()).isEqualTo(2);
+        assertThat(result.getFailed()).isEqualTo(1);
+        assertThat(result.getErrors()).extracting(BulkRowError::getLine).containsExactly(2L);
+        assertThat(itemService.getUserItem(ownerId)).extracting(ItemDto::getName).containsExactly("Drill", "Saw");
+    }
+
+    @Test
+    void importedItemsAreMatchedAgainstOpenRequests(ApplicationEvents events) {
+        Long requesterId = userService.createUser(TestData.user()).getId();
+        Long ownerId = userService.createUser(TestData.user()).getId();
+        Long requestId = itemRequestService.createRequest(
+                ItemRequestDto.builder().description("Looking for a cordless drill").build(), requesterId).getId();
+        String body = """
+                {"name":"Saw","description":"Hand saw","available":true}
+                {"name":"Drill","description":"Cordless drill","available":true}
+                """;
+
+        bulkService.importItems(ownerId, ndjson(body), BulkFormat.NDJSON);
+
+        assertThat(events.stream(ItemRequestMatch.class))
+                .filteredOn(match -> match.getRequestId().equals(requestId))
+                .singleElement()
+                .satisfies(match -> assertThat(match.getOwnerId()).isEqualTo(ownerId));
+    }
+
+    @Test
+    void importedItemsAnsweringARequestAreLinkedAndCloseIt(ApplicationEvents events) {
+        Long requesterId = userService.createUser(TestData.user()).getId();
+        Long ownerId = userService.createUser(TestData.user()).getId();
+        Long requestId = itemRequestService.createRequest(
+                ItemRequestDto.builder().description("Looking for a cordless drill").build(), requesterId).getId();
+        String body = """
+                {"name":"Drill","description":"Cordless drill","available":true,"request":%d}
+                {"name":"Saw","description":"Hand saw","available":true,"request":%d}
+                """.formatted(requestId, Long.MAX_VALUE);
+
+        BulkImportResult result = bulkService.importItems(ownerId, ndjson(body), BulkFormat.NDJSON);
+        bulkService.importItems(ownerId, ndjson("""
+                {"name":"Drill","description":"Another cordless drill","available":true}
+                """), BulkFormat.NDJSON);
+
+        assertThat(result.getImported()).isEqualTo(1);
+        assertThat(result.getErrors()).extracting(BulkRowError::getMessage)
+                .containsExactly("Request with id " + Long.MAX_VALUE + " not found");
+        assertThat(itemService.getUserItem(ownerId))
+                .filteredOn(item -> item.getRequest() != null)
+                .singleElement()
+                .satisfies(item -> assertThat(item.getRequest()).isEqualTo(requestId));
+        assertThat(events.stream(ItemRequestMatch.class))
+                .noneMatch(match -> match.getRequestId().equals(requestId));
+    }
+
+    @Test
+    void bookingsAreValidatedLikeTheRegularApi() {
+        Long ownerId = userService.createUser(TestData.user()).getId();
+        Long bookerId = userService.createUser(TestData.user()).getId();
+        Long availableId = itemService.createItem(TestData.item("Drill", "Cordless drill"), ownerId).getId();
+        ItemDto unavailable = TestData.item("Saw", "Hand saw");
+        unavailable.setAvailable(false);
+        Long unavailableId = itemService.createItem(unavailable, ownerId).getId();
+        LocalDateTime start = LocalDateTime.now().plusDays(1).withNano(0);
+        String body = String.join("\n",
+                row(availableId, bookerId, start, start.plusDays(1), "WAITING"),
+                row(unavailableId, bookerId, start, start.plusDays(1), "WAITING"),
+                row(availableId, bookerId, start.plusDays(2), start.plusDays(3), "APPROVED"),
+                row(availableId, bookerId, start.plusDays(4), start.plusDays(5), "CANCELLED"));
+
+        BulkImportResult result = bulkService.importBookings(ownerId, ndjson(body), BulkFormat.NDJSON);
+
+        assertThat(result.getImported()).isEqualTo(1);
+        assertThat(result.getErrors()).extracting(BulkRowError::getMessage).containsExactly(
+                "Item with id " + unavailableId + " is not available",
+                "Status APPROVED cannot be imported",
+                "Status CANCELLED cannot be imported");
+    }
+
+    @Test
+    void exportIncludesArchivedBookings() {
+        Long ownerId = userService.createUser(TestData.user()).getId();
+        Long bookerId = userService.createUser(TestData.user()).getId();
+        Long itemId = itemService.createItem(TestData.item("Drill", "Cordless drill"), ownerId).getId();
+        LocalDateTime start = LocalDateTime.now().plusDays(1).withNano(0);
+        bulkService.importBookings(ownerId, ndjson(row(itemId, bookerId, start, start.plusDays(1), "WAITING")),
+                BulkFormat.NDJSON);
+        jdbcTemplate.update("INSERT INTO bookings_archive (id, start_date, end_date, item_id, booker_id, owner_id, " +
+                        "status, archived_at) VALUES (?, ?, ?, ?, ?, ?, 'APPROVED', ?)",
+                -itemId, start.minusYears(1), start.minusYears(1).plusDays(1), itemId, bookerId, ownerId,
+                LocalDateTime.now());
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        bulkService.exportBookings(ownerId, out);
+
+        assertThat(out.toString(StandardCharsets.UTF_8).lines()).hasSize(2)
+                .first().asString().contains("\"id\":" + -itemId);
+    }
+
+    private static String row(Long itemId, Long bookerId, LocalDateTime start, LocalDateTime end, String status) {
+        return """
+                {"itemId":%d,"bookerId":%d,"start":"%s","end":"%s","status":"%s"}"""
+                .formatted(itemId, bookerId, start, end, status);
+    }
+
+    private static ByteArrayInputStream ndjson(String body) {
+        return new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8));
+    }
+}
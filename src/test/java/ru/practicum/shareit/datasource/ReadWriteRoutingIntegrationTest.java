@@ -0,0 +1,85 @@
+package ru.practicum.shareit.datasource;
+
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import ru.practicum.shareit.TestData;
+import ru.practicum.shareit.booking.BookingService;
+import ru.practicum.shareit.exceptions.DuplicateDataException;
+import ru.practicum.shareit.item.ItemService;
+import ru.practicum.shareit.item.dto.CommentDto;
+import ru.practicum.shareit.user.UserService;
+import ru.practicum.shareit.user.dto.UserDto;
+
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * The replica is a migrated but empty database, i.e. a replica that lags forever: anything that must see
+ * the caller's own writes fails if it is routed there.
+ */
+@SpringBootTest(properties = {
+        "shareit.datasource.routing.enabled=true",
+        "shareit.datasource.routing.replicas[0].url=" + ReadWriteRoutingIntegrationTest.REPLICA_URL,
+        "shareit.datasource.routing.replicas[0].username=sa",
+        "shareit.datasource.routing.replicas[0].password="
+})
+class ReadWriteRoutingIntegrationTest {
+
+    static final String REPLICA_URL = "jdbc:h2:mem:shareit-replica;DB_CLOSE_DELAY=-1";
+
+    static {
+        Flyway.configure()
+                .dataSource(REPLICA_URL, "sa", "")
+                .locations("classpath:db/migration/common", "classpath:db/migration/h2")
+                .load()
+                .migrate();
+    }
+
+    @Autowired
+    private UserService userService;
+    @Autowired
+    private ItemService itemService;
+    @Autowired
+    private BookingService bookingService;
+
+    @Test
+    void readOnlyListsAreServedByTheReplica() {
+        userService.createUser(TestData.user());
+
+        assertThat(userService.getAllUsers(0, null, null).body()).isEmpty();
+    }
+
+    @Test
+    void duplicateEmailIsCheckedOnThePrimary() {
+        UserDto user = TestData.user();
+        userService.createUser(user);
+
+        assertThatThrownBy(() -> userService.createUser(user)).isInstanceOf(DuplicateDataException.class);
+    }
+
+    @Test
+    void commentRentalCheckRunsOnThePrimary() {
+        Long ownerId = userService.createUser(TestData.user()).getId();
+        Long bookerId = userService.createUser(TestData.user()).getId();
+        Long itemId = itemService.createItem(TestData.item("Tent", "Two person tent"), ownerId).getId();
+        LocalDateTime start = LocalDateTime.now().minusDays(3);
+        bookingService.addBooking(TestData.booking(itemId, start, start.plusDays(1)), bookerId);
+
+        CommentDto comment = itemService.addComment(itemId, bookerId, CommentDto.builder().text("Dry").build());
+
+        assertThat(comment.getId()).isNotNull();
+    }
+
+    @Test
+    void freeWindowsOfAFreshItemAreFound() {
+        Long ownerId = userService.createUser(TestData.user()).getId();
+        Long itemId = itemService.createItem(TestData.item("Kayak", "Single seat"), ownerId).getId();
+        LocalDateTime from = LocalDateTime.now().plusDays(1);
+
+        assertThat(itemService.getFreeWindows(itemId, from, from.plusDays(1))).hasSize(1);
+    }
+}
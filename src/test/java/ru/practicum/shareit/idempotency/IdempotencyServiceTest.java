@@ -0,0 +1,78 @@
+package ru.practicum.shareit.idempotency;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.exceptions.DuplicateDataException;
+
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class IdempotencyServiceTest {
+
+    private final PlatformTransactionManager transactionManager = mock(PlatformTransactionManager.class);
+
+    IdempotencyServiceTest() {
+        when(transactionManager.getTransaction(any())).thenReturn(new SimpleTransactionStatus());
+    }
+
+    @Test
+    void repeatedKeyReturnsTheStoredResponseWithoutRunningAgain() {
+        IdempotencyService service = service(new InMemoryIdempotencyStore());
+        AtomicInteger runs = new AtomicInteger();
+
+        String first = service.execute("bookings", 1L, "key", "request", String.class,
+                () -> "booking-" + runs.incrementAndGet());
+        String second = service.execute("bookings", 1L, "key", "request", String.class,
+                () -> "booking-" + runs.incrementAndGet());
+
+        assertThat(first).isEqualTo("booking-1");
+        assertThat(second).isEqualTo("booking-1");
+        assertThat(runs).hasValue(1);
+        verify(transactionManager).commit(any());
+    }
+
+    @Test
+    void executionThatLostItsReservationRollsBack() {
+        IdempotencyStore store = mock(IdempotencyStore.class);
+        when(store.find("bookings:1:key")).thenReturn(Optional.empty());
+        when(store.reserve(eq("bookings:1:key"), anyString(), anyString(), any())).thenReturn(true);
+        when(store.complete(eq("bookings:1:key"), anyString(), anyString(), any())).thenReturn(false);
+        IdempotencyService service = service(store);
+
+        assertThatThrownBy(() -> service.execute("bookings", 1L, "key", "request", String.class, () -> "booking"))
+                .isInstanceOf(DuplicateDataException.class);
+
+        verify(transactionManager).rollback(any());
+        verify(transactionManager, never()).commit(any());
+        verify(store).release(eq("bookings:1:key"), anyString());
+    }
+
+    @Test
+    void failedExecutionIsNotStoredSoTheRetryRuns() {
+        IdempotencyService service = service(new InMemoryIdempotencyStore());
+
+        assertThatThrownBy(() -> service.execute("bookings", 1L, "key", "request", String.class, () -> {
+            throw new IllegalStateException("database down");
+        })).isInstanceOf(IllegalStateException.class);
+
+        assertThat(service.execute("bookings", 1L, "key", "request", String.class, () -> "booking"))
+                .isEqualTo("booking");
+    }
+
+    private IdempotencyService service(IdempotencyStore store) {
+        return new IdempotencyService(store, new ObjectMapper(), new TransactionTemplate(transactionManager), 24, 60);
+    }
+}
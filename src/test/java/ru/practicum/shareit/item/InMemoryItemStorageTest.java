@@ -0,0 +1,21 @@
+package ru.practicum.shareit.item;
+
+import ru.practicum.shareit.user.User;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+class InMemoryItemStorageTest extends ItemStorageContractTest {
+
+    private final InMemoryItemStorage storage = new InMemoryItemStorage();
+    private final AtomicLong ownerIds = new AtomicLong();
+
+    @Override
+    protected ItemStorage storage() {
+        return storage;
+    }
+
+    @Override
+    protected User newOwner() {
+        return User.builder().id(ownerIds.incrementAndGet()).name("Owner").email("owner@test.ru").build();
+    }
+}
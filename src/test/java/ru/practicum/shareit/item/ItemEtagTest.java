@@ -0,0 +1,67 @@
+package ru.practicum.shareit.item;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import ru.practicum.shareit.TestData;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.user.UserService;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class ItemEtagTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+    @Autowired
+    private UserService userService;
+    @Autowired
+    private ItemService itemService;
+
+    @Test
+    void getReturnsTheTagOfTheRepresentationAndHonoursIfNoneMatch() throws Exception {
+        Long ownerId = userService.createUser(TestData.user()).getId();
+        ItemDto item = itemService.createItem(TestData.item("Drill", "Cordless drill"), ownerId);
+
+        String etag = mockMvc.perform(get("/items/{id}", item.getId()))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        assertThat(etag).isEqualTo(itemService.getItem(item.getId(), null).etag());
+        assertThat(itemService.getItem(item.getId(), etag).body()).isNull();
+        mockMvc.perform(get("/items/{id}", item.getId()).header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified());
+    }
+
+    @Test
+    void patchReturnsTheTagOfTheUpdatedItem() throws Exception {
+        Long ownerId = userService.createUser(TestData.user()).getId();
+        ItemDto item = itemService.createItem(TestData.item("Saw", "Hand saw"), ownerId);
+        String before = itemService.getItem(item.getId(), null).etag();
+
+        String after = mockMvc.perform(patch("/items/{id}", item.getId())
+                        .header("X-Sharer-User-Id", ownerId)
+                        .header(HttpHeaders.IF_MATCH, before)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"description\":\"Sharp hand saw\"}"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        assertThat(after).isNotEqualTo(before).isEqualTo(itemService.getItem(item.getId(), null).etag());
+        mockMvc.perform(patch("/items/{id}", item.getId())
+                        .header("X-Sharer-User-Id", ownerId)
+                        .header(HttpHeaders.IF_MATCH, before)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"description\":\"Blunt hand saw\"}"))
+                .andExpect(status().isPreconditionFailed());
+    }
+}
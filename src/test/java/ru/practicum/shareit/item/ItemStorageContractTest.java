@@ -0,0 +1,117 @@
+package ru.practicum.shareit.item;
+
+import org.junit.jupiter.api.Test;
+import ru.practicum.shareit.exceptions.NotFoundException;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.user.User;
+
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Behaviour every {@link ItemStorage} must share, run against the in-memory and the JPA engine.
+ * Stores may hold rows from other tests, so every case uses its own owner and search words.
+ */
+abstract class ItemStorageContractTest {
+
+    private static final Random RANDOM = new Random();
+
+    protected abstract ItemStorage storage();
+
+    /**
+     * An owner the store accepts, persisted where the store requires it.
+     */
+    protected abstract User newOwner();
+
+    @Test
+    void createAssignsAnIdAndGetReturnsTheStoredItem() {
+        Item item = storage().createItem(newItem(newOwner(), "Drill", "Cordless drill", true));
+
+        assertThat(item.getId()).isNotNull();
+        assertThat(storage().getItem(item.getId()))
+                .extracting(Item::getName, Item::getDescription, Item::isAvailable)
+                .containsExactly("Drill", "Cordless drill", true);
+    }
+
+    @Test
+    void ownerItemsAreListedOnceInIdOrderAfterUpdates() {
+        User owner = newOwner();
+        Item first = storage().createItem(newItem(owner, "Drill", "Cordless drill", true));
+        Item second = storage().createItem(newItem(owner, "Saw", "Hand saw", true));
+        storage().updateItem(ItemDto.builder().name("Hammer drill").build(), first.getId());
+        storage().updateItem(ItemDto.builder().available(false).build(), first.getId());
+
+        assertThat(storage().getUserItem(owner.getId())).extracting(Item::getId)
+                .containsExactly(first.getId(), second.getId());
+    }
+
+    @Test
+    void updateChangesOnlyTheGivenFields() {
+        Item item = storage().createItem(newItem(newOwner(), "Drill", "Cordless drill", true));
+
+        Item updated = storage().updateItem(ItemDto.builder().description("Corded drill").build(), item.getId());
+
+        assertThat(updated).extracting(Item::getName, Item::getDescription, Item::isAvailable)
+                .containsExactly("Drill", "Corded drill", true);
+    }
+
+    @Test
+    void updateOfMissingItemFails() {
+        assertThatThrownBy(() -> storage().updateItem(ItemDto.builder().name("Nothing").build(), Long.MAX_VALUE))
+                .isInstanceOf(NotFoundException.class);
+    }
+
+    @Test
+    void deleteRemovesTheItemFromOwnerListAndSearch() {
+        User owner = newOwner();
+        String word = uniqueWord();
+        Item item = storage().createItem(newItem(owner, word, "To be deleted", true));
+
+        storage().deleteItem(item.getId());
+
+        assertThat(storage().getItem(item.getId())).isNull();
+        assertThat(storage().getUserItem(owner.getId())).isEmpty();
+        assertThat(storage().searchItem(word)).isEmpty();
+        assertThatThrownBy(() -> storage().deleteItem(item.getId())).isInstanceOf(NotFoundException.class);
+    }
+
+    @Test
+    void searchMatchesSubstringsIgnoringCaseNameMatchesFirstAndSkipsUnavailableItems() {
+        User owner = newOwner();
+        String word = uniqueWord();
+        Item inDescription = storage().createItem(newItem(owner, "Tool", "A " + word + " tool", true));
+        Item inName = storage().createItem(newItem(owner, word + " kit", "A kit", true));
+        storage().createItem(newItem(owner, word, "Unavailable", false));
+
+        assertThat(storage().searchItem(word.substring(1, 7).toLowerCase())).extracting(Item::getId)
+                .containsExactly(inName.getId(), inDescription.getId());
+    }
+
+    @Test
+    void searchSeesUpdatedText() {
+        Item item = storage().createItem(newItem(newOwner(), "Drill", "Cordless drill", true));
+        String word = uniqueWord();
+
+        storage().updateItem(ItemDto.builder().description(word).build(), item.getId());
+
+        assertThat(storage().searchItem(word)).extracting(Item::getId).containsExactly(item.getId());
+    }
+
+    private static Item newItem(User owner, String name, String description, boolean available) {
+        return Item.builder().name(name).description(description).available(available).owner(owner).build();
+    }
+
+    /**
+     * Letters only, so every search mode tokenizes it as a single word nobody else uses.
+     */
+    private static String uniqueWord() {
+        StringBuilder word = new StringBuilder("Qz");
+        for (int i = 0; i < 10; i++) {
+            word.append((char) ('a' + RANDOM.nextInt(26)));
+        }
+        return word.toString();
+    }
+}
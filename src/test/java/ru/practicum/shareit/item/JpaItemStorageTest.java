@@ -0,0 +1,30 @@
+package ru.practicum.shareit.item;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import ru.practicum.shareit.TestData;
+import ru.practicum.shareit.user.User;
+import ru.practicum.shareit.user.UserMapper;
+import ru.practicum.shareit.user.UserRepository;
+
+/**
+ * Runs the storage contract against the default {@link JpaItemStorage} bean.
+ */
+@SpringBootTest
+class JpaItemStorageTest extends ItemStorageContractTest {
+
+    @Autowired
+    private ItemStorage itemStorage;
+    @Autowired
+    private UserRepository userRepository;
+
+    @Override
+    protected ItemStorage storage() {
+        return itemStorage;
+    }
+
+    @Override
+    protected User newOwner() {
+        return userRepository.save(UserMapper.toUser(TestData.user()));
+    }
+}
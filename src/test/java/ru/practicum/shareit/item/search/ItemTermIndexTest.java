@@ -0,0 +1,66 @@
+package ru.practicum.shareit.item.search;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ItemTermIndexTest {
+
+    private final ItemTermIndex index = new ItemTermIndex();
+
+    @Test
+    void matchesSubstringsInsideWordsCaseInsensitively() {
+        index.index(1L, "Screwdriver", "Flat head");
+        index.index(2L, "Hammer", "Heavy");
+
+        assertThat(index.search("DRIV")).containsExactly(1L);
+        assertThat(index.search("ammer")).containsExactly(2L);
+    }
+
+    @Test
+    void matchesTheWholeTextAcrossWordBoundaries() {
+        index.index(1L, "Cordless drill", "Two batteries");
+        index.index(2L, "Drill", "Cordless, with cable");
+
+        assertThat(index.search("less dr")).containsExactly(1L);
+        assertThat(index.search("cordless drill")).containsExactly(1L);
+    }
+
+    @Test
+    void tokensShorterThanATrigramAreLookedUpDirectly() {
+        index.index(1L, "Axe", "Sharp");
+        index.index(2L, "Rope", "Ten metres");
+
+        assertThat(index.search("x")).containsExactly(1L);
+        assertThat(index.search("ro")).containsExactly(2L);
+        assertThat(index.search("q")).isEmpty();
+    }
+
+    @Test
+    void itemsMissingAnyTrigramOfTheQueryAreNotMatched() {
+        index.index(1L, "Screwdriver", "Flat head");
+
+        assertThat(index.search("drives")).isEmpty();
+        assertThat(index.search("screw head")).isEmpty();
+    }
+
+    @Test
+    void nameMatchesComeBeforeDescriptionMatches() {
+        index.index(1L, "Saw", "Cuts like a drill");
+        index.index(2L, "Drill", "Percussion");
+
+        assertThat(index.search("drill")).containsExactly(2L, 1L);
+    }
+
+    @Test
+    void removedAndReindexedWordsLeaveTheVocabulary() {
+        index.index(1L, "Drill", "Cordless");
+        index.index(1L, "Saw", "Cordless");
+        assertThat(index.search("drill")).isEmpty();
+
+        index.remove(1L);
+
+        assertThat(index.vocabularySize()).isZero();
+        assertThat(index.size()).isZero();
+    }
+}
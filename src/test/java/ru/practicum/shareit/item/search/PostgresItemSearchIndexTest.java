@@ -0,0 +1,48 @@
+package ru.practicum.shareit.item.search;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import ru.practicum.shareit.TestData;
+import ru.practicum.shareit.item.ItemRepository;
+import ru.practicum.shareit.item.ItemService;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.user.UserService;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Runs the postgres-mode search query on H2, which shares its LIKE semantics and default escape character.
+ */
+@SpringBootTest
+class PostgresItemSearchIndexTest {
+
+    @Autowired
+    private ItemRepository itemRepository;
+    @Autowired
+    private UserService userService;
+    @Autowired
+    private ItemService itemService;
+
+    @Test
+    void wildcardsInTheQueryMatchLiterally() {
+        Long ownerId = userService.createUser(TestData.user()).getId();
+        Long discount = itemService.createItem(TestData.item("Paint 50% off", "Red_blue"), ownerId).getId();
+        itemService.createItem(TestData.item("Paint 500 ml", "Redxblue"), ownerId);
+        PostgresItemSearchIndex index = new PostgresItemSearchIndex(itemRepository);
+
+        assertThat(index.search("50%")).extracting(Item::getId).containsExactly(discount);
+        assertThat(index.search("d_b")).extracting(Item::getId).containsExactly(discount);
+    }
+
+    @Test
+    void nameMatchesComeBeforeDescriptionMatches() {
+        Long ownerId = userService.createUser(TestData.user()).getId();
+        Long inDescription = itemService.createItem(
+                TestData.item("Saw", "Cuts like a chisel-drill"), ownerId).getId();
+        Long inName = itemService.createItem(TestData.item("Chisel-drill", "Percussion"), ownerId).getId();
+
+        assertThat(new PostgresItemSearchIndex(itemRepository).search("chisel-drill"))
+                .extracting(Item::getId).containsExactly(inName, inDescription);
+    }
+}
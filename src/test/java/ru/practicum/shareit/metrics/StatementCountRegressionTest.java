@@ -0,0 +1,128 @@
+package ru.practicum.shareit.metrics;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+import ru.practicum.shareit.TestData;
+import ru.practicum.shareit.booking.BookingService;
+import ru.practicum.shareit.item.ItemService;
+import ru.practicum.shareit.user.UserService;
+
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Statement budgets per endpoint, read from the per-request summary that {@link QueryCountFilter} records.
+ * Listings must issue the same number of statements however many rows they return.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+class StatementCountRegressionTest {
+
+    private static final String USER_HEADER = "X-Sharer-User-Id";
+
+    @Autowired
+    private MockMvc mockMvc;
+    @Autowired
+    private MeterRegistry meterRegistry;
+    @Autowired
+    private UserService userService;
+    @Autowired
+    private ItemService itemService;
+    @Autowired
+    private BookingService bookingService;
+
+    private Long ownerId;
+    private Long bookerId;
+    private LocalDateTime nextStart = LocalDateTime.now().plusDays(1);
+
+    @BeforeEach
+    void setUp() {
+        ownerId = userService.createUser(TestData.user()).getId();
+        bookerId = userService.createUser(TestData.user()).getId();
+    }
+
+    @Test
+    void itemDetailStaysWithinBudget() throws Exception {
+        Long itemId = addBookedItem();
+
+        assertThat(statements(get("/items/{id}", itemId), "/items/{id}")).isLessThanOrEqualTo(6);
+    }
+
+    @Test
+    void ownerItemListDoesNotGrowWithItems() throws Exception {
+        addItems(2);
+        int few = statements(get("/items").header(USER_HEADER, ownerId), "/items");
+        addItems(5);
+        int many = statements(get("/items").header(USER_HEADER, ownerId), "/items");
+
+        assertThat(many).isEqualTo(few).isLessThanOrEqualTo(6);
+    }
+
+    @Test
+    void bookingListsDoNotGrowWithBookings() throws Exception {
+        addBookedItem();
+        int fewByBooker = statements(get("/bookings").header(USER_HEADER, bookerId), "/bookings");
+        int fewByOwner = statements(get("/bookings/owner").header(USER_HEADER, ownerId), "/bookings/owner");
+        for (int i = 0; i < 5; i++) {
+            addBookedItem();
+        }
+        int manyByBooker = statements(get("/bookings").header(USER_HEADER, bookerId), "/bookings");
+        int manyByOwner = statements(get("/bookings/owner").header(USER_HEADER, ownerId), "/bookings/owner");
+
+        assertThat(manyByBooker).isEqualTo(fewByBooker).isLessThanOrEqualTo(3);
+        assertThat(manyByOwner).isEqualTo(fewByOwner).isLessThanOrEqualTo(3);
+    }
+
+    @Test
+    void userListDoesNotGrowWithUsers() throws Exception {
+        int few = statements(get("/users"), "/users");
+        for (int i = 0; i < 5; i++) {
+            userService.createUser(TestData.user());
+        }
+        int many = statements(get("/users"), "/users");
+
+        assertThat(many).isEqualTo(few).isLessThanOrEqualTo(3);
+    }
+
+    private int statements(MockHttpServletRequestBuilder request, String uri) throws Exception {
+        DistributionSummary summary = summary(uri);
+        long countBefore = summary.count();
+        double totalBefore = summary.totalAmount();
+
+        mockMvc.perform(request).andExpect(status().isOk());
+
+        assertThat(summary.count()).isEqualTo(countBefore + 1);
+        return (int) (summary.totalAmount() - totalBefore);
+    }
+
+    private DistributionSummary summary(String uri) {
+        return DistributionSummary.builder("shareit.request.sql.statements")
+                .tag("method", "GET")
+                .tag("uri", uri)
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
+
+    private void addItems(int count) {
+        for (int i = 0; i < count; i++) {
+            itemService.createItem(TestData.item("Item " + i, "Description " + i), ownerId);
+        }
+    }
+
+    private Long addBookedItem() {
+        Long itemId = itemService.createItem(TestData.item("Booked", "Booked item"), ownerId).getId();
+        bookingService.addBooking(TestData.booking(itemId, nextStart, nextStart.plusHours(1)), bookerId);
+        nextStart = nextStart.plusDays(1);
+        return itemId;
+    }
+}
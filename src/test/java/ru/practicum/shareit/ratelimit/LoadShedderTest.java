@@ -0,0 +1,49 @@
+package ru.practicum.shareit.ratelimit;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class LoadShedderTest {
+
+    @Test
+    void sheddingIsOffByDefault() {
+        LoadShedder shedder = new LoadShedder(new RateLimitProperties(), new SimpleMeterRegistry());
+
+        shedder.record(EndpointClass.READS, TimeUnit.SECONDS.toNanos(60));
+
+        assertThat(shedder.shouldShed(EndpointClass.READS)).isFalse();
+    }
+
+    @Test
+    void bulkTransfersDoNotRaiseTheLatencyAverage() {
+        LoadShedder shedder = new LoadShedder(enabled(), new SimpleMeterRegistry());
+
+        for (int i = 0; i < 100; i++) {
+            shedder.record(EndpointClass.BULK, TimeUnit.SECONDS.toNanos(30));
+        }
+        assertThat(shedder.shouldShed(EndpointClass.READS)).isFalse();
+
+        for (int i = 0; i < 100; i++) {
+            shedder.record(EndpointClass.READS, TimeUnit.SECONDS.toNanos(1));
+        }
+        assertThat(shedder.shouldShed(EndpointClass.READS)).isTrue();
+    }
+
+    @Test
+    void importsAndExportsAreBulk() {
+        assertThat(EndpointClass.of(new MockHttpServletRequest("POST", "/bookings/bulk"))).isEqualTo(EndpointClass.BULK);
+        assertThat(EndpointClass.of(new MockHttpServletRequest("GET", "/users/export"))).isEqualTo(EndpointClass.BULK);
+        assertThat(EndpointClass.of(new MockHttpServletRequest("GET", "/bookings"))).isEqualTo(EndpointClass.BOOKING_LISTS);
+    }
+
+    private static RateLimitProperties enabled() {
+        RateLimitProperties properties = new RateLimitProperties();
+        properties.getShedding().setEnabled(true);
+        return properties;
+    }
+}
@@ -0,0 +1,66 @@
+package ru.practicum.shareit.ratelimit;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import ru.practicum.shareit.bulkhead.DatabaseBulkheadFilter;
+import ru.practicum.shareit.user.UserRepository;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class RateLimitFilterTest {
+
+    private final UserRepository userRepository = mock(UserRepository.class);
+
+    @Test
+    void unknownUserIdsShareTheAddressBucket() throws Exception {
+        RateLimitFilter filter = filter(new InMemoryRateLimiter());
+
+        assertThat(status(filter, "1001")).isEqualTo(200);
+        assertThat(status(filter, "1002")).isEqualTo(429);
+        assertThat(status(filter, "not-a-number")).isEqualTo(429);
+        verify(userRepository, never()).existsById(1002L);
+    }
+
+    @Test
+    void knownUserGetsItsOwnBucketOnceVerified() throws Exception {
+        when(userRepository.existsById(7L)).thenReturn(true);
+        RateLimitFilter filter = filter(new InMemoryRateLimiter());
+
+        assertThat(status(filter, "7")).isEqualTo(200);
+        assertThat(status(filter, "7")).isEqualTo(200);
+        assertThat(status(filter, "7")).isEqualTo(429);
+        assertThat(status(filter, null)).isEqualTo(429);
+    }
+
+    @Test
+    void databaseStoreRunsBehindTheBulkhead() {
+        assertThat(filter(new InMemoryRateLimiter()).getOrder()).isLessThan(DatabaseBulkheadFilter.ORDER);
+        assertThat(filter(new JdbcRateLimiter(null)).getOrder()).isGreaterThan(DatabaseBulkheadFilter.ORDER);
+    }
+
+    private RateLimitFilter filter(RateLimiter rateLimiter) {
+        RateLimitProperties properties = new RateLimitProperties();
+        properties.setEnabled(true);
+        properties.getLimits().put(EndpointClass.READS, new RateLimitProperties.Limit(1, 0.001));
+        return new RateLimitFilter(properties, rateLimiter, new LoadShedder(properties, new SimpleMeterRegistry()),
+                new ObjectMapper(), userRepository, new SimpleMeterRegistry());
+    }
+
+    private static int status(RateLimitFilter filter, String userId) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/items/1");
+        if (userId != null) {
+            request.addHeader("X-Sharer-User-Id", userId);
+        }
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, new MockFilterChain());
+        return response.getStatus();
+    }
+}
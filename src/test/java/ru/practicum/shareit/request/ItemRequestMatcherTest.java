@@ -0,0 +1,77 @@
+package ru.practicum.shareit.request;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.event.ApplicationEvents;
+import org.springframework.test.context.event.RecordApplicationEvents;
+import ru.practicum.shareit.TestData;
+import ru.practicum.shareit.item.ItemService;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.request.dto.ItemRequestDto;
+import ru.practicum.shareit.user.UserService;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@RecordApplicationEvents
+class ItemRequestMatcherTest {
+
+    @Autowired
+    private UserService userService;
+    @Autowired
+    private ItemService itemService;
+    @Autowired
+    private ItemRequestService itemRequestService;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void requestWrittenByAnotherNodeIsMatched(ApplicationEvents events) {
+        Long requesterId = userService.createUser(TestData.user()).getId();
+        Long ownerId = userService.createUser(TestData.user()).getId();
+        Long requestId = jdbcTemplate.queryForObject("SELECT COALESCE(MAX(id), 0) + 1000 FROM request", Long.class);
+        jdbcTemplate.update("INSERT INTO request (id, description, requestor_id, created) " +
+                "VALUES (?, 'Need a camping lantern', ?, CURRENT_TIMESTAMP)", requestId, requesterId);
+        jdbcTemplate.update("INSERT INTO request_terms (term, request_id) VALUES ('camping', ?), ('lantern', ?)",
+                requestId, requestId);
+
+        itemService.createItem(TestData.item("Lantern", "Camping lantern"), ownerId);
+
+        assertThat(events.stream(ItemRequestMatch.class))
+                .filteredOn(match -> match.getRequestId().equals(requestId))
+                .singleElement()
+                .satisfies(match -> assertThat(match.getRequesterId()).isEqualTo(requesterId));
+    }
+
+    @Test
+    void answeredRequestIsNoLongerMatched(ApplicationEvents events) {
+        Long requesterId = userService.createUser(TestData.user()).getId();
+        Long ownerId = userService.createUser(TestData.user()).getId();
+        Long requestId = itemRequestService.createRequest(
+                ItemRequestDto.builder().description("Looking for a folding kayak").build(), requesterId).getId();
+        ItemDto answer = TestData.item("Kayak", "Folding kayak");
+        answer.setRequest(requestId);
+        itemService.createItem(answer, ownerId);
+
+        itemService.createItem(TestData.item("Kayak", "Another folding kayak"), ownerId);
+
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM request_terms WHERE request_id = ?",
+                Integer.class, requestId)).isZero();
+        assertThat(events.stream(ItemRequestMatch.class)).noneMatch(match -> match.getRequestId().equals(requestId));
+    }
+
+    @Test
+    void ownRequestsAndSingleSharedTermDoNotMatch(ApplicationEvents events) {
+        Long requesterId = userService.createUser(TestData.user()).getId();
+        Long ownerId = userService.createUser(TestData.user()).getId();
+        Long requestId = itemRequestService.createRequest(
+                ItemRequestDto.builder().description("Electric pressure washer").build(), requesterId).getId();
+
+        itemService.createItem(TestData.item("Washer", "Pressure washer"), requesterId);
+        itemService.createItem(TestData.item("Washer", "Dish washer"), ownerId);
+
+        assertThat(events.stream(ItemRequestMatch.class)).noneMatch(match -> match.getRequestId().equals(requestId));
+    }
+}
@@ -0,0 +1,45 @@
+package ru.practicum.shareit.request;
+
+import org.flywaydb.core.Flyway;
+import org.flywaydb.core.api.configuration.FluentConfiguration;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import ru.practicum.shareit.booking.BookingOwnerBackfill;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Upgrades a database holding requests from before request_terms existed.
+ */
+class RequestTermsBackfillTest {
+
+    private static final String URL = "jdbc:h2:mem:shareit-request-terms-backfill;DB_CLOSE_DELAY=-1";
+
+    @Test
+    void onlyOpenRequestsGetTheirTerms() {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(URL, "sa", "");
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+        flyway(dataSource).target("20").load().migrate();
+        jdbcTemplate.update("INSERT INTO users (id, name, email) VALUES (1, 'owner', 'o@mail.ru'), " +
+                "(2, 'requester', 'r@mail.ru')");
+        jdbcTemplate.update("INSERT INTO request (id, description, requestor_id, created) VALUES " +
+                "(1, 'Cordless drill', 2, CURRENT_TIMESTAMP), (2, 'Garden hose', 2, CURRENT_TIMESTAMP)");
+        jdbcTemplate.update("INSERT INTO items (id, name, description, is_available, owner_id, request_id) " +
+                "VALUES (1, 'Hose', 'Garden hose', true, 1, 2)");
+
+        flyway(dataSource).load().migrate();
+
+        assertThat(jdbcTemplate.queryForList("SELECT term FROM request_terms WHERE request_id = 1", String.class))
+                .containsExactlyInAnyOrder("cordless", "drill");
+        assertThat(jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM request_terms WHERE request_id = 2", Integer.class)).isZero();
+    }
+
+    private static FluentConfiguration flyway(DriverManagerDataSource dataSource) {
+        return Flyway.configure()
+                .dataSource(dataSource)
+                .locations("classpath:db/migration/common", "classpath:db/migration/h2")
+                .javaMigrations(new BookingOwnerBackfill(1000), new RequestTermsBackfill());
+    }
+}
@@ -0,0 +1,24 @@
+package ru.practicum.shareit.user;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class InMemoryUserStorageTest extends UserStorageContractTest {
+
+    private final InMemoryUserStorage storage = new InMemoryUserStorage();
+
+    @Override
+    protected UserStorage storage() {
+        return storage;
+    }
+
+    @Test
+    void returnedUsersAreCopies() {
+        User user = storage.createUser(newUser());
+
+        storage.getUser(user.getId()).orElseThrow().setName("Changed");
+
+        assertThat(storage.getUser(user.getId())).get().extracting(User::getName).isEqualTo(user.getName());
+    }
+}
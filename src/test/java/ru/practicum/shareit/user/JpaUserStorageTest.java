@@ -0,0 +1,19 @@
+package ru.practicum.shareit.user;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+/**
+ * Runs the storage contract against the default {@link JpaUserStorage} bean.
+ */
+@SpringBootTest
+class JpaUserStorageTest extends UserStorageContractTest {
+
+    @Autowired
+    private UserStorage userStorage;
+
+    @Override
+    protected UserStorage storage() {
+        return userStorage;
+    }
+}
@@ -0,0 +1,39 @@
+package ru.practicum.shareit.user;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.runner.ApplicationContextRunner;
+import ru.practicum.shareit.item.InMemoryItemStorage;
+import ru.practicum.shareit.item.ItemRepository;
+import ru.practicum.shareit.item.ItemStorage;
+import ru.practicum.shareit.item.JpaItemStorage;
+import ru.practicum.shareit.item.search.ItemSearchIndex;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+class StorageProfileTest {
+
+    private final ApplicationContextRunner runner = new ApplicationContextRunner()
+            .withBean(UserRepository.class, () -> mock(UserRepository.class))
+            .withBean(ItemRepository.class, () -> mock(ItemRepository.class))
+            .withBean(ItemSearchIndex.class, () -> mock(ItemSearchIndex.class))
+            .withUserConfiguration(JpaUserStorage.class, InMemoryUserStorage.class,
+                    JpaItemStorage.class, InMemoryItemStorage.class);
+
+    @Test
+    void jpaEnginesAreTheDefault() {
+        runner.run(context -> {
+            assertThat(context).getBean(UserStorage.class).isInstanceOf(JpaUserStorage.class);
+            assertThat(context).getBean(ItemStorage.class).isInstanceOf(JpaItemStorage.class);
+        });
+    }
+
+    @Test
+    void inMemoryProfileSwapsBothEngines() {
+        runner.withInitializer(context -> context.getEnvironment().setActiveProfiles("inmemory"))
+                .run(context -> {
+                    assertThat(context).getBean(UserStorage.class).isInstanceOf(InMemoryUserStorage.class);
+                    assertThat(context).getBean(ItemStorage.class).isInstanceOf(InMemoryItemStorage.class);
+                });
+    }
+}
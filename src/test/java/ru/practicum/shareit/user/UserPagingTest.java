@@ -0,0 +1,52 @@
+package ru.practicum.shareit.user;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import ru.practicum.shareit.TestData;
+import ru.practicum.shareit.user.dto.UserDto;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+class UserPagingTest {
+
+    @Autowired
+    private UserService userService;
+
+    @Test
+    void fromIsARowOffsetNotAPageNumber() {
+        for (int i = 0; i < 5; i++) {
+            userService.createUser(TestData.user());
+        }
+        List<Long> all = userService.getAllUsers(0, null, null).body().stream().map(UserDto::getId).toList();
+
+        List<UserDto> page = userService.getAllUsers(3, 2, null).body();
+
+        assertThat(page).extracting(UserDto::getId).containsExactlyElementsOf(all.subList(3, 5));
+    }
+
+    @Test
+    void withoutSizeTheWholeListIsReturned() {
+        for (int i = 0; i < 101; i++) {
+            userService.createUser(TestData.user());
+        }
+
+        assertThat(userService.getAllUsers(0, null, null).body()).hasSizeGreaterThan(100);
+    }
+
+    @Test
+    void pageTagChangesOnlyWithTheRowsOfThePage() {
+        UserDto first = userService.createUser(TestData.user());
+        userService.createUser(TestData.user());
+        String etag = userService.getAllUsers(0, 1, first.getId() - 1).etag();
+
+        userService.createUser(TestData.user());
+        assertThat(userService.getAllUsers(0, 1, first.getId() - 1).etag()).isEqualTo(etag);
+
+        userService.updateUser(UserDto.builder().name("Renamed").build(), first.getId(), null);
+        assertThat(userService.getAllUsers(0, 1, first.getId() - 1).etag()).isNotEqualTo(etag);
+    }
+}
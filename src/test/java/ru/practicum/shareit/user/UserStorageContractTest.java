@@ -0,0 +1,87 @@
+package ru.practicum.shareit.user;
+
+import org.junit.jupiter.api.Test;
+import ru.practicum.shareit.exceptions.DuplicateDataException;
+import ru.practicum.shareit.exceptions.NotFoundException;
+
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Behaviour every {@link UserStorage} must share, run against the in-memory and the JPA engine.
+ * Stores may hold rows from other tests, so every case works on users it creates itself.
+ */
+abstract class UserStorageContractTest {
+
+    protected abstract UserStorage storage();
+
+    @Test
+    void createAssignsDistinctIdsAndGetReturnsTheStoredUser() {
+        User first = storage().createUser(newUser());
+        User second = storage().createUser(newUser());
+
+        assertThat(first.getId()).isNotNull().isNotEqualTo(second.getId());
+        assertThat(storage().getUser(first.getId())).get()
+                .extracting(User::getName, User::getEmail)
+                .containsExactly(first.getName(), first.getEmail());
+    }
+
+    @Test
+    void getAllListsUsersInIdOrder() {
+        User first = storage().createUser(newUser());
+        User second = storage().createUser(newUser());
+
+        assertThat(storage().getAllUsers()).extracting(User::getId)
+                .containsSubsequence(first.getId(), second.getId());
+    }
+
+    @Test
+    void duplicateEmailIsRejectedOnCreateAndUpdate() {
+        User first = storage().createUser(newUser());
+        User second = storage().createUser(newUser());
+
+        User sameEmail = newUser();
+        sameEmail.setEmail(first.getEmail());
+        assertThatThrownBy(() -> storage().createUser(sameEmail)).isInstanceOf(DuplicateDataException.class);
+        assertThatThrownBy(() -> storage().updateUser(User.builder().email(first.getEmail()).build(),
+                second.getId())).isInstanceOf(DuplicateDataException.class);
+    }
+
+    @Test
+    void updateChangesOnlyTheGivenFieldsAndFreesTheOldEmail() {
+        User user = storage().createUser(newUser());
+        String oldEmail = user.getEmail();
+        String newEmail = UUID.randomUUID() + "@test.ru";
+
+        User updated = storage().updateUser(User.builder().email(newEmail).build(), user.getId());
+
+        assertThat(updated.getName()).isEqualTo(user.getName());
+        assertThat(updated.getEmail()).isEqualTo(newEmail);
+        User reusing = newUser();
+        reusing.setEmail(oldEmail);
+        assertThat(storage().createUser(reusing).getId()).isNotNull();
+    }
+
+    @Test
+    void updateOfMissingUserFails() {
+        assertThatThrownBy(() -> storage().updateUser(User.builder().name("Nobody").build(), Long.MAX_VALUE))
+                .isInstanceOf(NotFoundException.class);
+    }
+
+    @Test
+    void deleteRemovesTheUserAndMissingUsersFail() {
+        User user = storage().createUser(newUser());
+
+        storage().deleteUser(user.getId());
+
+        assertThat(storage().getUser(user.getId())).isEmpty();
+        assertThatThrownBy(() -> storage().deleteUser(user.getId())).isInstanceOf(NotFoundException.class);
+    }
+
+    protected static User newUser() {
+        String name = UUID.randomUUID().toString();
+        return User.builder().name(name).email(name + "@test.ru").build();
+    }
+}